@@ -0,0 +1,114 @@
+package com.NotFalse.app;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Creates the inputs of the benchmarks. The texts are generated from a fixed vocabulary with a
+ * fixed seed, so every run and every commit formats and indexes exactly the same text.
+ */
+final class BenchmarkText {
+
+    private static final String[] VOCABULARY = {
+            "lorem", "ipsum", "dolor", "sit", "amet", "consectetur", "adipiscing", "elit", "sed", "do",
+            "eiusmod", "tempor", "incididunt", "ut", "labore", "et", "dolore", "magna", "aliqua", "enim",
+            "ad", "minim", "veniam", "quis", "nostrud", "exercitation", "ullamco", "laboris", "nisi",
+            "aliquip", "ex", "ea", "commodo", "consequat", "Duis", "aute", "irure", "in", "reprehenderit",
+            "voluptate", "velit", "esse", "cillum", "fugiat", "nulla", "pariatur", "Excepteur", "sint",
+            "occaecat", "cupidatat", "non", "proident", "sunt", "culpa", "qui", "officia", "deserunt",
+            "mollit", "anim", "id", "est", "laborum", "Qua", "causa", "Helvetii", "quoque", "reliquos",
+            "Gallos", "virtute", "praecedunt", "quod", "fere", "cotidianis", "proeliis", "cum",
+            "Germanis", "contendunt", "supercalifragilisticexpialidocious"
+    };
+    private static final String[] PUNCTUATION = {".", ",", "!", "?", ";", ":"};
+    private static final long SEED = 42;
+
+    private BenchmarkText() {
+    }
+
+    /**
+     * Creates a text of the given size.
+     *
+     * @param paragraphs      number of paragraphs
+     * @param paragraphLength approximate number of characters per paragraph
+     * @return returns the generated paragraphs
+     */
+    static List<String> createText(int paragraphs, int paragraphLength) {
+        Random random = new Random(SEED);
+        List<String> text = new ArrayList<>(paragraphs);
+        for (int i = 0; i < paragraphs; i++) {
+            text.add(createParagraph(random, paragraphLength));
+        }
+        return text;
+    }
+
+    /**
+     * Creates a single paragraph of the given length.
+     *
+     * @param paragraphLength approximate number of characters
+     * @return returns the generated paragraph
+     */
+    static String createParagraph(int paragraphLength) {
+        return createParagraph(new Random(SEED), paragraphLength);
+    }
+
+    private static String createParagraph(Random random, int paragraphLength) {
+        StringBuilder paragraph = new StringBuilder(paragraphLength + 32);
+        while (paragraph.length() < paragraphLength) {
+            if (paragraph.length() > 0) {
+                paragraph.append(' ');
+            }
+            paragraph.append(VOCABULARY[random.nextInt(VOCABULARY.length)]);
+            if (random.nextInt(8) == 0) {
+                paragraph.append(PUNCTUATION[random.nextInt(PUNCTUATION.length)]);
+            }
+        }
+        return paragraph.toString();
+    }
+
+    /**
+     * Creates a TextManager containing the text. Its output is discarded and no messages are logged.
+     *
+     * @param text paragraphs of the text
+     * @return returns the TextManager
+     */
+    static TextManager createTextManager(List<String> text) {
+        PrintStream discard = new PrintStream(OutputStream.nullOutputStream());
+        TextManager textManager = new TextManager(new InputReceiver(InputStream.nullInputStream()),
+                new OutputManager(discard, discard, false));
+        textManager.setText(text);
+        return textManager;
+    }
+
+    /**
+     * Input stream which repeats the given bytes endlessly, so a Scanner never runs out of lines.
+     */
+    static final class RepeatingInputStream extends InputStream {
+
+        private final byte[] content;
+        private int position;
+
+        RepeatingInputStream(byte[] content) {
+            this.content = content;
+        }
+
+        @Override
+        public int read() {
+            byte next = content[position];
+            position = (position + 1) % content.length;
+            return next & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            int count = Math.min(length, content.length - position);
+            System.arraycopy(content, position, buffer, offset, count);
+            position = (position + count) % content.length;
+            return count;
+        }
+    }
+}
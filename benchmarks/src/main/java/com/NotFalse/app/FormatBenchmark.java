@@ -0,0 +1,84 @@
+package com.NotFalse.app;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the raw and the fixed format of the text.
+ * The fixed format is measured with the layout cache, which is the default of the editor,
+ * and without it, which is the cost of formatting a text that has just been loaded or changed.
+ * The layouts of 10000 paragraphs of 1000 characters do not fit into the default capacity of the
+ * cache, so for this size formatTextFix shows that such a text is formatted without the cache
+ * and is not slower than formatTextFixUncached.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FormatBenchmark {
+
+    @Param({"100", "10000"})
+    int paragraphs;
+
+    @Param({"80", "1000"})
+    int paragraphLength;
+
+    private TextManager cachedTextManager;
+    private TextManager uncachedTextManager;
+    private List<String> rawText;
+    private RawTextRenderer rawRenderer;
+
+    @Setup
+    public void setUp() {
+        cachedTextManager = BenchmarkText.createTextManager(BenchmarkText.createText(paragraphs, paragraphLength));
+        uncachedTextManager = BenchmarkText.createTextManager(BenchmarkText.createText(paragraphs, paragraphLength));
+        uncachedTextManager.setLayoutCacheCapacity(0);
+        rawText = BenchmarkText.createText(paragraphs, paragraphLength);
+        rawRenderer = new RawTextRenderer();
+        rawRenderer.reset(rawText.size());
+    }
+
+    /**
+     * Width of the fixed format.
+     */
+    @State(Scope.Benchmark)
+    public static class Width {
+
+        @Param({"20", "80", "200"})
+        int width;
+    }
+
+    /**
+     * Renders the raw format after one paragraph has been changed. Without the change the
+     * renderer would return the text it has rendered before, and only a field read would be measured.
+     */
+    @Benchmark
+    public String formatTextRaw() {
+        rawRenderer.paragraphChanged(paragraphs / 2);
+        return rawRenderer.render(rawText);
+    }
+
+    @Benchmark
+    public String formatTextFix(Width width) {
+        return cachedTextManager.formatTextFix(width.width);
+    }
+
+    @Benchmark
+    public String formatTextFixUncached(Width width) {
+        return uncachedTextManager.formatTextFix(width.width);
+    }
+}
@@ -0,0 +1,48 @@
+package com.NotFalse.app;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for building the glossary of the whole text.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GlossaryBenchmark {
+
+    @Param({"100", "10000"})
+    int paragraphs;
+
+    @Param({"80", "1000"})
+    int paragraphLength;
+
+    private List<String> text;
+    private GlossaryApp glossary;
+
+    @Setup
+    public void setUp() {
+        text = BenchmarkText.createText(paragraphs, paragraphLength);
+        glossary = new GlossaryApp();
+    }
+
+    @Benchmark
+    public GlossaryApp rebuildGlossary() {
+        return glossary.rebuildGlossary(text);
+    }
+}
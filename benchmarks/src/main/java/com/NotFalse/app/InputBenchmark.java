@@ -0,0 +1,83 @@
+package com.NotFalse.app;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for reading the user input: filtering a line, splitting a command line
+ * and looking up the command.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InputBenchmark {
+
+    private static final String[] COMMAND_LINES = {
+            "add 3", "ADD", "del 12", "dummy", "exit", "format_raw", "format_fix", "index",
+            "print", "replace 7", "help", "load", "save", "unknown command"
+    };
+
+    private InputReceiver commandInput;
+    private String[] commands;
+
+    @Setup
+    public void setUp() {
+        commandInput = new InputReceiver(new BenchmarkText.RepeatingInputStream(
+                (String.join("\n", COMMAND_LINES) + "\n").getBytes(StandardCharsets.UTF_8)));
+        commands = new String[COMMAND_LINES.length];
+        for (int i = 0; i < COMMAND_LINES.length; i++) {
+            commands[i] = COMMAND_LINES[i].split(" ")[0];
+        }
+    }
+
+    /**
+     * Line of text to be filtered.
+     */
+    @State(Scope.Benchmark)
+    public static class Line {
+
+        @Param({"80", "1000"})
+        int paragraphLength;
+
+        String text;
+
+        @Setup
+        public void setUp() {
+            // contains characters which are removed by the filter
+            text = BenchmarkText.createParagraph(paragraphLength).replace(';', '~').replace(':', '|');
+        }
+    }
+
+    @Benchmark
+    public String filterInput(Line line) {
+        return commandInput.filterInput(line.text);
+    }
+
+    @Benchmark
+    public String[] splitInput() {
+        return commandInput.splitInput();
+    }
+
+    @Benchmark
+    public void getCommandsEnum(Blackhole blackhole) {
+        for (String command : commands) {
+            blackhole.consume(Commands.getCommandsEnum(command));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.NotFalse.app;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for replacing words. Every invocation of replaceWord replaces the word and
+ * then replaces it back, so the text is the same at the start of every invocation.
+ * replaceAllWords applies many replacements to every paragraph without changing the text.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReplaceBenchmark {
+
+    private static final int REPLACEMENTS = 500;
+
+    @Param({"100", "10000"})
+    int paragraphs;
+
+    @Param({"80", "1000"})
+    int paragraphLength;
+
+    private TextManager textManager;
+    private int index;
+    private List<String> text;
+    private WordReplacer replacer;
+
+    @Setup
+    public void setUp() {
+        textManager = BenchmarkText.createTextManager(BenchmarkText.createText(paragraphs, paragraphLength));
+        index = paragraphs / 2;
+        text = BenchmarkText.createText(paragraphs, paragraphLength);
+        Map<String, String> replacements = new HashMap<>();
+        for (int i = 0; i < REPLACEMENTS; i++) {
+            replacements.put("term" + i, "replacement" + i);
+        }
+        // a few words which occur in the text
+        replacements.put("dolor", "pain");
+        replacements.put("Helvetii", "Swiss");
+        replacer = new WordReplacer(replacements);
+    }
+
+    @Benchmark
+    public void replaceAllWords(Blackhole blackhole) {
+        for (String paragraph : text) {
+            blackhole.consume(replacer.replace(paragraph));
+        }
+    }
+
+    @Benchmark
+    public void replaceWord() {
+        textManager.replaceWord(index, "dolor", "pain");
+        textManager.replaceWord(index, "pain", "dolor");
+    }
+}
@@ -0,0 +1,58 @@
+package com.NotFalse.app;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for building the search index and for searching words and phrases.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchBenchmark {
+
+    @Param({"100", "10000"})
+    int paragraphs;
+
+    @Param({"80", "1000"})
+    int paragraphLength;
+
+    private List<String> text;
+    private SearchIndex index;
+
+    @Setup
+    public void setUp() {
+        text = BenchmarkText.createText(paragraphs, paragraphLength);
+        index = SearchIndex.build(text);
+    }
+
+    @Benchmark
+    public SearchIndex buildIndex() {
+        return SearchIndex.build(text);
+    }
+
+    @Benchmark
+    public List<Integer> searchRareWord() {
+        return index.search("supercalifragilisticexpialidocious");
+    }
+
+    @Benchmark
+    public List<Integer> searchPhraseAndWord() {
+        return index.search("\"lorem ipsum\" AND Helvetii");
+    }
+}
@@ -0,0 +1,186 @@
+package com.NotFalse.app;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Writes texts to PrintStreams on a background thread. The texts are put into a bounded queue,
+ * which the writer thread drains in batches. Interactive output is flushed once per batch, so
+ * prompts appear without delay. Other output is only flushed by flush and close: the editing
+ * thread usually submits one text at a time, and flushing every batch would flush every line.
+ * The editing thread only waits if the queue is full or if it explicitly flushes the output.
+ * Texts are written in the order they were submitted, also across different streams.
+ */
+final class AsyncOutputSink {
+
+    static final int DEFAULT_CAPACITY = 1024;
+
+    private static final int MAX_BATCH_SIZE = 256;
+
+    private final BlockingQueue<Entry> queue;
+    private final Thread writer;
+    private final boolean isFlushedPerBatch;
+    private volatile boolean isClosed;
+
+    /**
+     * Constructor for AsyncOutputSink which flushes the streams after every batch.
+     * Starts the writer thread.
+     *
+     * @param capacity maximum number of texts waiting to be written
+     * @param name     name of the writer thread
+     */
+    AsyncOutputSink(int capacity, String name) {
+        this(capacity, name, true);
+    }
+
+    /**
+     * Constructor for AsyncOutputSink. Starts the writer thread.
+     *
+     * @param capacity          maximum number of texts waiting to be written
+     * @param name              name of the writer thread
+     * @param isFlushedPerBatch true if the streams are flushed after every batch, otherwise
+     *                          only by flush and close
+     */
+    AsyncOutputSink(int capacity, String name, boolean isFlushedPerBatch) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity must be at least 1: " + capacity);
+        }
+        queue = new ArrayBlockingQueue<>(capacity);
+        this.isFlushedPerBatch = isFlushedPerBatch;
+        writer = new Thread(this::drain, name);
+        // the output of an editor which is exited without closing the sink is flushed on EXIT
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Submits the text to be written to the stream.
+     *
+     * @param stream destination of the text
+     * @param text   text to be written
+     */
+    void write(PrintStream stream, String text) {
+        if (isClosed) {
+            throw new IllegalStateException("The output has already been closed.");
+        }
+        submit(new Entry(stream, text, null));
+    }
+
+    /**
+     * Waits until all texts submitted so far have been written and flushed.
+     */
+    void flush() {
+        if (isClosed) {
+            return;
+        }
+        CountDownLatch written = new CountDownLatch(1);
+        submit(new Entry(null, null, written));
+        awaitUninterruptibly(written);
+    }
+
+    /**
+     * Writes all submitted texts and stops the writer thread.
+     */
+    void close() {
+        if (isClosed) {
+            return;
+        }
+        flush();
+        isClosed = true;
+        writer.interrupt();
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void submit(Entry entry) {
+        boolean isInterrupted = false;
+        while (true) {
+            try {
+                queue.put(entry);
+                break;
+            } catch (InterruptedException e) {
+                isInterrupted = true;
+            }
+        }
+        if (isInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Main loop of the writer thread.
+     */
+    private void drain() {
+        List<Entry> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        List<PrintStream> written = new ArrayList<>(2);
+        while (!isClosed || !queue.isEmpty()) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                continue;
+            }
+            queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+            for (Entry entry : batch) {
+                if (entry.flushed != null) {
+                    flushAll(written);
+                    entry.flushed.countDown();
+                } else {
+                    entry.stream.print(entry.text);
+                    if (!written.contains(entry.stream)) {
+                        written.add(entry.stream);
+                    }
+                }
+            }
+            if (isFlushedPerBatch) {
+                flushAll(written);
+            }
+            batch.clear();
+        }
+    }
+
+    private static void flushAll(List<PrintStream> streams) {
+        for (PrintStream stream : streams) {
+            stream.flush();
+        }
+        streams.clear();
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean isInterrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                isInterrupted = true;
+            }
+        }
+        if (isInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Text waiting to be written, or a marker which is counted down when everything
+     * before it has been written.
+     */
+    private static final class Entry {
+
+        private final PrintStream stream;
+        private final String text;
+        private final CountDownLatch flushed;
+
+        Entry(PrintStream stream, String text, CountDownLatch flushed) {
+            this.stream = stream;
+            this.text = text;
+            this.flushed = flushed;
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.NotFalse.app;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Maintains the glossary on a virtual thread while the text is edited. The first build and every
+ * replacement of the whole text rebuild the glossary from a snapshot. Edits of single paragraphs
+ * are queued and applied to the built glossary incrementally, like the editor does without this
+ * class, so an edit costs O(paragraph) and not O(text). The queued work only starts when nothing
+ * has been scheduled for the debounce time, so a series of edits is applied in one go.
+ * The result is kept together with the snapshot it has been built from: if the text has not
+ * changed since then, the glossary is returned immediately, otherwise the caller only waits for
+ * the current snapshot. The returned glossary is updated by the following edits, so it must only
+ * be read by the thread scheduling the edits, before it schedules the next one.
+ */
+final class BackgroundGlossary {
+
+    static final long DEFAULT_DEBOUNCE_MILLIS = 50;
+
+    private final GlossaryApp builder;
+    private final long debounceNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    // signalled when a build is scheduled, when the result is needed and when a build is finished
+    private final Condition changed = lock.newCondition();
+    private ParagraphList.Snapshot requested;
+    private long requestedAt;
+    // edits after the last build, only collected if the glossary is not rebuilt anyway
+    private List<Consumer<GlossaryApp>> edits = new ArrayList<>();
+    private boolean isRebuildNeeded = true;
+    private ParagraphList.Snapshot builtFrom;
+    private GlossaryApp result;
+    // RuntimeException or Error of the last build
+    private Throwable failure;
+    private boolean isNeeded;
+    private boolean isRunning;
+
+    /**
+     * Constructor for BackgroundGlossary.
+     *
+     * @param builder        glossary whose settings are used for the builds
+     * @param debounceMillis time without edits after which a build starts
+     */
+    BackgroundGlossary(GlossaryApp builder, long debounceMillis) {
+        if (debounceMillis < 0) {
+            throw new IllegalArgumentException("The debounce time must not be negative: " + debounceMillis);
+        }
+        this.builder = builder;
+        debounceNanos = TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+    }
+
+    /**
+     * Schedules a rebuild of the glossary from the snapshot, e.g. after the whole text has been
+     * replaced. The edits scheduled before, which have not been applied yet, are discarded.
+     *
+     * @param snapshot the current version of the text
+     */
+    void schedule(ParagraphList.Snapshot snapshot) {
+        lock.lock();
+        try {
+            isRebuildNeeded = true;
+            edits.clear();
+            request(snapshot);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Schedules the update of the glossary for a paragraph which has been inserted.
+     *
+     * @param snapshot  the version of the text after the insertion
+     * @param index     position of the new paragraph, starting at 0
+     * @param paragraph the inserted paragraph
+     */
+    void insertParagraph(ParagraphList.Snapshot snapshot, int index, CharSequence paragraph) {
+        scheduleEdit(snapshot, glossary -> glossary.insertParagraph(index, paragraph));
+    }
+
+    /**
+     * Schedules the update of the glossary for a paragraph which has been removed.
+     *
+     * @param snapshot  the version of the text after the removal
+     * @param index     position of the removed paragraph, starting at 0
+     * @param paragraph the removed paragraph
+     */
+    void removeParagraph(ParagraphList.Snapshot snapshot, int index, CharSequence paragraph) {
+        scheduleEdit(snapshot, glossary -> glossary.removeParagraph(index, paragraph));
+    }
+
+    /**
+     * Schedules the update of the glossary for a paragraph whose content has been replaced.
+     *
+     * @param snapshot     the version of the text after the replacement
+     * @param index        position of the paragraph, starting at 0
+     * @param oldParagraph the paragraph before the replacement
+     * @param newParagraph the paragraph after the replacement
+     */
+    void replaceParagraph(ParagraphList.Snapshot snapshot, int index, CharSequence oldParagraph,
+                          CharSequence newParagraph) {
+        scheduleEdit(snapshot, glossary -> glossary.replaceParagraph(index, oldParagraph, newParagraph));
+    }
+
+    private void scheduleEdit(ParagraphList.Snapshot snapshot, Consumer<GlossaryApp> edit) {
+        lock.lock();
+        try {
+            if (!isRebuildNeeded) {
+                edits.add(edit);
+            }
+            request(snapshot);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Makes the snapshot the version to be built and starts the builder if it is not running.
+     * The lock has to be held.
+     */
+    private void request(ParagraphList.Snapshot snapshot) {
+        requested = snapshot;
+        requestedAt = System.nanoTime();
+        if (!isRunning) {
+            isRunning = true;
+            Thread.ofVirtual().name("glossary-builder").start(this::run);
+        }
+        changed.signalAll();
+    }
+
+    /**
+     * Gets the glossary of the snapshot. It is returned immediately if it has already been
+     * built, otherwise its build is started without waiting for the debounce time.
+     *
+     * @param snapshot the current version of the text
+     * @return returns the glossary built from the snapshot
+     */
+    GlossaryApp get(ParagraphList.Snapshot snapshot) {
+        lock.lock();
+        try {
+            if (builtFrom != snapshot) {
+                if (requested != snapshot) {
+                    schedule(snapshot);
+                }
+                isNeeded = true;
+                changed.signalAll();
+                while (builtFrom != snapshot) {
+                    changed.awaitUninterruptibly();
+                }
+                isNeeded = false;
+            }
+            if (failure instanceof Error error) {
+                throw error;
+            }
+            if (failure != null) {
+                throw (RuntimeException) failure;
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the glossary of the snapshot only if it has already been built, without starting
+     * or waiting for a build.
+     *
+     * @param snapshot the current version of the text
+     * @return returns the glossary built from the snapshot or null if it has not been built yet
+     */
+    GlossaryApp getIfBuilt(ParagraphList.Snapshot snapshot) {
+        lock.lock();
+        try {
+            return builtFrom == snapshot && failure == null ? result : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Shuts down the pool which is shared by the parallel builds. The scheduled builds are
+     * finished first, without waiting for the debounce time.
+     */
+    void close() {
+        lock.lock();
+        try {
+            isNeeded = true;
+            changed.signalAll();
+            while (isRunning) {
+                changed.awaitUninterruptibly();
+            }
+            isNeeded = false;
+            builder.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Builds the requested snapshots on the virtual thread. If the thread is stopped by anything
+     * the builds do not catch, the waiting callers get the failure instead of waiting forever.
+     */
+    private void run() {
+        boolean isFinished = false;
+        Throwable stopFailure = null;
+        try {
+            buildRequested();
+            isFinished = true;
+        } catch (Throwable e) {
+            stopFailure = e;
+            throw e;
+        } finally {
+            if (!isFinished) {
+                stop(stopFailure);
+            }
+        }
+    }
+
+    /**
+     * Marks the builder as stopped. The requested snapshot is marked as failed, and the next
+     * build is a rebuild, since the queued edits may be lost.
+     */
+    private void stop(Throwable stopFailure) {
+        lock.lock();
+        try {
+            builtFrom = requested;
+            result = null;
+            failure = stopFailure;
+            isRebuildNeeded = true;
+            edits.clear();
+            isRunning = false;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Builds the requested snapshots until the last one has been built. A snapshot is built
+     * by applying the queued edits to the last result, or by a rebuild if it has been scheduled
+     * or the last build has failed.
+     */
+    private void buildRequested() {
+        while (true) {
+            ParagraphList.Snapshot snapshot;
+            List<Consumer<GlossaryApp>> pendingEdits;
+            lock.lock();
+            try {
+                awaitDebounceTime();
+                if (requested == builtFrom) {
+                    isRunning = false;
+                    changed.signalAll();
+                    return;
+                }
+                snapshot = requested;
+                pendingEdits = isRebuildNeeded ? null : edits;
+                edits = new ArrayList<>();
+                isRebuildNeeded = false;
+            } finally {
+                lock.unlock();
+            }
+            GlossaryApp glossary = null;
+            Throwable buildFailure = null;
+            try {
+                if (pendingEdits == null) {
+                    glossary = builder.rebuildGlossary(snapshot);
+                } else {
+                    // the result is not read until the thread scheduling the edits waits for this build
+                    glossary = result;
+                    for (Consumer<GlossaryApp> edit : pendingEdits) {
+                        edit.accept(glossary);
+                    }
+                }
+            } catch (RuntimeException | Error e) {
+                // an Error like StackOverflowError is passed to the caller like an exception
+                buildFailure = e;
+            }
+            lock.lock();
+            try {
+                builtFrom = snapshot;
+                result = glossary;
+                failure = buildFailure;
+                if (buildFailure != null) {
+                    // the glossary may be half updated, the next edits are applied to a new build
+                    isRebuildNeeded = true;
+                    edits.clear();
+                }
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Waits until no build has been scheduled for the debounce time or until the result is needed.
+     * The lock has to be held.
+     */
+    private void awaitDebounceTime() {
+        long remaining = requestedAt + debounceNanos - System.nanoTime();
+        while (!isNeeded && remaining > 0) {
+            try {
+                changed.awaitNanos(remaining);
+            } catch (InterruptedException e) {
+                // the builder is only stopped with the JVM, the result may still be needed
+            }
+            remaining = requestedAt + debounceNanos - System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.NotFalse.app;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Collects the latency and, if the JVM supports it, the allocated memory of every command.
+ * The statistics are only collected if they are enabled, a disabled TextManager does not
+ * create this class at all.
+ */
+final class CommandStatistics {
+
+    private static final double NANOS_PER_MICRO = 1000.0;
+
+    private final Map<Commands, LatencyHistogram> latencies = new EnumMap<>(Commands.class);
+    private final Map<Commands, Long> allocatedBytes = new EnumMap<>(Commands.class);
+    private final com.sun.management.ThreadMXBean allocationBean;
+
+    /**
+     * Constructor for CommandStatistics.
+     */
+    CommandStatistics() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (threadBean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threadBean).isThreadAllocatedMemorySupported()
+                && ((com.sun.management.ThreadMXBean) threadBean).isThreadAllocatedMemoryEnabled()) {
+            allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+        } else {
+            allocationBean = null;
+        }
+    }
+
+    /**
+     * Gets the number of bytes the current thread has allocated so far.
+     *
+     * @return returns the allocated bytes or -1 if the JVM does not measure them
+     */
+    long getAllocatedBytes() {
+        return allocationBean == null ? -1 : allocationBean.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Records one execution of a command.
+     *
+     * @param command        the executed command
+     * @param nanos          latency of the command in nanoseconds
+     * @param allocatedBytes bytes allocated by the command or a negative value if unknown
+     */
+    void record(Commands command, long nanos, long allocatedBytes) {
+        latencies.computeIfAbsent(command, key -> new LatencyHistogram()).record(nanos);
+        if (allocatedBytes >= 0) {
+            this.allocatedBytes.merge(command, allocatedBytes, Long::sum);
+        }
+    }
+
+    /**
+     * Gets the latencies of the command.
+     *
+     * @param command the command
+     * @return returns the histogram of the latencies or null if the command was never executed
+     */
+    LatencyHistogram getLatencies(Commands command) {
+        return latencies.get(command);
+    }
+
+    /**
+     * Formats the statistics of all executed commands as a table.
+     *
+     * @return returns one line per command
+     */
+    String format() {
+        StringBuilder table = new StringBuilder();
+        table.append(String.format("%-12s %8s %12s %12s %12s %14s%n",
+                "Command", "Count", "p50 (us)", "p99 (us)", "max (us)", "alloc/op (KB)"));
+        for (Map.Entry<Commands, LatencyHistogram> entry : latencies.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            Long bytes = allocatedBytes.get(entry.getKey());
+            String allocation = bytes == null ? "n/a"
+                    : String.format("%.1f", bytes / 1024.0 / histogram.getCount());
+            table.append(String.format("%-12s %8d %12.1f %12.1f %12.1f %14s%n",
+                    entry.getKey().getCommand(), histogram.getCount(),
+                    histogram.getPercentile(50) / NANOS_PER_MICRO,
+                    histogram.getPercentile(99) / NANOS_PER_MICRO,
+                    histogram.getMax() / NANOS_PER_MICRO, allocation));
+        }
+        return table.toString();
+    }
+}
@@ -1,9 +1,15 @@
 package com.NotFalse.app;
 
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
 /**
  * Enum class for all commands, which are used in the application.
  * The enum class contains a constructor, a getter, a method to check if the input is a command,
  * a method to get all commands, and a method to get the command as a String.
+ * The commands are looked up in a table which is built once, so finding a command does not
+ * depend on the number of commands.
  */
 public enum Commands {
     EXIT("exit"),
@@ -13,11 +19,24 @@ public enum Commands {
     INDEX("index"),
     PRINT("print"),
     REPLACE("replace"),
+    REPLACE_ALL("replace_all"),
     HELP("help"),
     FORMAT_RAW("format_raw"),
     FORMAT_FIX("format_fix"),
+    LOAD("load"),
+    SAVE("save"),
+    STATS("stats"),
+    SEARCH("search"),
     UNKNOWN("unknown");
 
+    private static final Map<String, Commands> COMMANDS_BY_NAME = new HashMap<>();
+
+    static {
+        for (Commands command : values()) {
+            COMMANDS_BY_NAME.put(command.getCommand(), command);
+        }
+    }
+
     public final String command;
 
     /**
@@ -46,31 +65,23 @@ public enum Commands {
      * @return boolean
      */
     static boolean isCommand(String input) {
-        for (Commands command : Commands.values()) {
-            if (command.getCommand().equals(input)) {
-                return true;
-            }
-        }
-        return false;
+        return COMMANDS_BY_NAME.containsKey(input);
     }
 
-    //is this method really necessary?
-
     /**
-     * Returns the command as a String. If the command is not found,
-     * the method returns "unknown".
+     * Returns the command with the given name, ignoring the case. If the command is not found,
+     * the method returns UNKNOWN.
      *
-     * @param command
-     * @return
+     * @param command name of the command
+     * @return returns the command
      */
     public static Commands getCommandsEnum(String command) {
-        Commands[] commands = Commands.values();
-        for (Commands value : commands) {
-            if (value.getCommand().equals(command.toLowerCase())) {
-                return value;
-            }
+        Commands value = COMMANDS_BY_NAME.get(command);
+        if (value == null) {
+            // most commands are typed in lower case, so the name is only converted if needed
+            value = COMMANDS_BY_NAME.get(command.toLowerCase(Locale.ROOT));
         }
-        return Commands.UNKNOWN;
+        return value == null ? UNKNOWN : value;
     }
 
     /**
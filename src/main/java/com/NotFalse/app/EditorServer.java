@@ -0,0 +1,123 @@
+package com.NotFalse.app;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Editing server for many users in one JVM. It listens on a local TCP port and runs every
+ * connection as a session on its own virtual thread. A session has its own TextManager, and
+ * its InputReceiver and OutputManager read from and write to the socket, so a client like
+ * telnet or netcat sees the same prompts and messages as the console. The commands are read
+ * as UTF-8, and the messages of the sessions are not logged by the server.
+ * Waiting for input only blocks the virtual thread, so idle sessions do not occupy a
+ * platform thread.
+ */
+final class EditorServer implements Closeable {
+
+    static final int DEFAULT_PORT = 7070;
+
+    private static final Logger LOGGER = Logger.getLogger(EditorServer.class.getName());
+    private static final int BACKLOG = 128;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService sessions = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<Socket> openSockets = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructor for EditorServer. The server only accepts connections from the local host.
+     *
+     * @param port port to listen on, 0 chooses a free port
+     * @throws IOException if the port cannot be opened
+     */
+    EditorServer(int port) throws IOException {
+        serverSocket = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+    }
+
+    /**
+     * Gets the port the server is listening on.
+     *
+     * @return returns the local port
+     */
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Accepts connections and starts a session for each of them until the server is closed.
+     */
+    void serve() {
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (SocketException e) {
+                // the server socket has been closed
+                break;
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "A connection could not be accepted", e);
+                continue;
+            }
+            openSockets.add(socket);
+            sessions.execute(() -> runSession(socket));
+        }
+    }
+
+    /**
+     * Runs the editor for one connection until the user exits or the connection is closed.
+     *
+     * @param socket connection of the session
+     */
+    private void runSession(Socket socket) {
+        try (socket) {
+            // every message is written to the socket at once, so the prompts reach the client
+            // before the session waits for the next line
+            PrintStream out = new PrintStream(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+            // the messages of a session are only sent to its client, they are not logged by the server
+            OutputManager output = new OutputManager(out, out, true, false, false);
+            InputReceiver input = new InputReceiver(socket.getInputStream(), StandardCharsets.UTF_8);
+            TextEditor editor = new TextEditor(new TextManager(input, output));
+            try {
+                editor.runTextEditor();
+            } catch (NoSuchElementException e) {
+                // the client disconnected in the middle of a command
+            }
+            output.flush();
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "The session has been closed", e);
+        } finally {
+            openSockets.remove(socket);
+        }
+    }
+
+    /**
+     * Stops accepting connections, closes the open sessions and waits for their threads.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Socket socket : openSockets) {
+            socket.close();
+        }
+        sessions.shutdown();
+        try {
+            sessions.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.NotFalse.app;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Wraps paragraphs to a maximum line width and writes the lines directly to an Appendable.
+ * Only the width of the current line is kept, so the formatted text is never held in memory.
+ * Lines are broken at whitespace, words longer than the maximum width are split into pieces.
+ * The words of all paragraphs are written as one continuous text.
+ * If a LayoutCache is given, the layouts of the paragraphs are cached, so unchanged paragraphs
+ * do not have to be broken into lines again. The positions of the words are cached as well,
+ * so formatting a paragraph with a new width does not have to scan its characters.
+ */
+final class FixedWidthFormatter {
+
+    private final int maxWidth;
+    private final Appendable output;
+    private final LayoutCache layoutCache;
+    private int currentWidth;
+    // collects the layout of the current paragraph instead of writing it, if not null
+    private ParagraphLayout.Builder layoutBuilder;
+
+    /**
+     * Constructor for FixedWidthFormatter.
+     *
+     * @param maxWidth maximum number of characters per line
+     * @param output   destination of the formatted text
+     */
+    FixedWidthFormatter(int maxWidth, Appendable output) {
+        this(maxWidth, output, null);
+    }
+
+    /**
+     * Constructor for FixedWidthFormatter.
+     *
+     * @param maxWidth    maximum number of characters per line
+     * @param output      destination of the formatted text
+     * @param layoutCache cache for the paragraph layouts, may be null
+     */
+    FixedWidthFormatter(int maxWidth, Appendable output, LayoutCache layoutCache) {
+        this(maxWidth, output, layoutCache, 0);
+    }
+
+    /**
+     * Constructor for a FixedWidthFormatter continuing a line, e.g. to format the text starting
+     * in the middle of it.
+     *
+     * @param maxWidth    maximum number of characters per line
+     * @param output      destination of the formatted text
+     * @param layoutCache cache for the paragraph layouts, may be null
+     * @param startColumn width of the line already written before the first paragraph
+     */
+    FixedWidthFormatter(int maxWidth, Appendable output, LayoutCache layoutCache, int startColumn) {
+        if (maxWidth < 1) {
+            throw new IllegalArgumentException("The width must be at least 1: " + maxWidth);
+        }
+        this.maxWidth = maxWidth;
+        this.output = output;
+        this.layoutCache = layoutCache;
+        currentWidth = startColumn;
+    }
+
+    /**
+     * Formats the text and writes it to the output.
+     *
+     * @param text     paragraphs to be formatted
+     * @param maxWidth maximum number of characters per line
+     * @param output   destination of the formatted text
+     * @throws IOException if the output cannot be written
+     */
+    static void format(List<String> text, int maxWidth, Appendable output) throws IOException {
+        format(text, maxWidth, output, null);
+    }
+
+    /**
+     * Formats the text and writes it to the output, using and filling the layout cache.
+     *
+     * @param text        paragraphs to be formatted
+     * @param maxWidth    maximum number of characters per line
+     * @param output      destination of the formatted text
+     * @param layoutCache cache for the paragraph layouts, may be null
+     * @throws IOException if the output cannot be written
+     */
+    static void format(List<String> text, int maxWidth, Appendable output, LayoutCache layoutCache)
+            throws IOException {
+        FixedWidthFormatter formatter = new FixedWidthFormatter(maxWidth, output, layoutCache);
+        for (int i = 0; i < text.size(); i++) {
+            formatter.appendParagraph(TokenParagraph.paragraphAt(text, i));
+        }
+    }
+
+    /**
+     * Appends the words of the paragraph to the current line.
+     *
+     * @param paragraph paragraph to be formatted
+     * @throws IOException if the output cannot be written
+     */
+    void appendParagraph(CharSequence paragraph) throws IOException {
+        boolean isTokens = paragraph instanceof TokenParagraph;
+        if (layoutCache == null || !(paragraph instanceof String || isTokens)) {
+            // the text of token paragraphs is only decoded for writing
+            layoutParagraph(isTokens ? paragraph.toString() : paragraph, wordBreaksOf(paragraph));
+            return;
+        }
+        ParagraphLayout layout = layoutCache.get(paragraph, maxWidth, currentWidth);
+        if (layout == null) {
+            int[] wordBreaks = layoutCache.getWordBreaks(paragraph);
+            if (wordBreaks == null) {
+                wordBreaks = wordBreaksOf(paragraph);
+                layoutCache.putWordBreaks(paragraph, wordBreaks);
+            }
+            int startColumn = currentWidth;
+            layoutBuilder = new ParagraphLayout.Builder();
+            layoutParagraph(paragraph, wordBreaks);
+            layout = layoutBuilder.build(currentWidth);
+            layoutBuilder = null;
+            layoutCache.put(paragraph, maxWidth, startColumn, layout);
+        }
+        layout.writeTo(isTokens ? paragraph.toString() : paragraph, output);
+        currentWidth = layout.getEndColumn();
+    }
+
+    /**
+     * Gets the width of the current line.
+     *
+     * @return returns the number of characters written to the current line
+     */
+    int getCurrentWidth() {
+        return currentWidth;
+    }
+
+    /**
+     * Finds the words of the paragraph, for token paragraphs by the lengths of the tokens.
+     *
+     * @param paragraph paragraph to be split into words
+     * @return returns pairs of the start and end index of every word
+     */
+    private static int[] wordBreaksOf(CharSequence paragraph) {
+        return paragraph instanceof TokenParagraph tokens ? tokens.computeWordBreaks() : computeWordBreaks(paragraph);
+    }
+
+    /**
+     * Finds the words of the paragraph. The result does not depend on the width, so it can
+     * be reused to break the paragraph into lines of any width.
+     * The words are the same as the ones returned by paragraph.split("\\s+"), so an empty
+     * paragraph or leading whitespace produces an empty word, which adds a space.
+     *
+     * @param paragraph paragraph to be split into words
+     * @return returns pairs of the start and end index of every word
+     */
+    static int[] computeWordBreaks(CharSequence paragraph) {
+        int length = paragraph.length();
+        int[] wordBreaks = new int[8];
+        int size = 0;
+        int position = 0;
+        while (position < length && isWhitespace(paragraph.charAt(position))) {
+            position++;
+        }
+        if (length == 0 || (position > 0 && position < length)) {
+            // the empty word is stored as a span of length 0
+            size = 2;
+        }
+        while (position < length) {
+            int wordEnd = position;
+            while (wordEnd < length && !isWhitespace(paragraph.charAt(wordEnd))) {
+                wordEnd++;
+            }
+            if (size + 2 > wordBreaks.length) {
+                wordBreaks = Arrays.copyOf(wordBreaks, wordBreaks.length * 2);
+            }
+            wordBreaks[size++] = position;
+            wordBreaks[size++] = wordEnd;
+            position = wordEnd;
+            while (position < length && isWhitespace(paragraph.charAt(position))) {
+                position++;
+            }
+        }
+        return Arrays.copyOf(wordBreaks, size);
+    }
+
+    /**
+     * Breaks the paragraph into lines, using only the positions of its words.
+     *
+     * @param paragraph  paragraph to be formatted
+     * @param wordBreaks pairs of the start and end index of every word
+     * @throws IOException if the output cannot be written
+     */
+    private void layoutParagraph(CharSequence paragraph, int[] wordBreaks) throws IOException {
+        for (int i = 0; i < wordBreaks.length; i += 2) {
+            appendWord(paragraph, wordBreaks[i], wordBreaks[i + 1]);
+        }
+    }
+
+    /**
+     * Appends a word to the current line or starts a new line if it does not fit.
+     *
+     * @param text  text containing the word
+     * @param start index of the first character of the word
+     * @param end   index after the last character of the word
+     * @throws IOException if the output cannot be written
+     */
+    private void appendWord(CharSequence text, int start, int end) throws IOException {
+        start = breakDownLongWord(text, start, end);
+        int wordLength = end - start;
+        // Check if adding the current word exceeds maxWidth
+        if (currentWidth + (currentWidth > 0 ? 1 : 0) + wordLength > maxWidth) {
+            writeNewLine();
+        }
+        // Add a space if it's not the first word on the line
+        if (currentWidth > 0) {
+            writeSpace();
+        }
+        writeSpan(text, start, end);
+    }
+
+    /**
+     * If the word itself is longer than maxWidth, writes full lines of it until the
+     * rest fits into a line.
+     *
+     * @param text  text containing the word
+     * @param start index of the first character of the word
+     * @param end   index after the last character of the word
+     * @return returns the start index of the remaining part of the word
+     * @throws IOException if the output cannot be written
+     */
+    private int breakDownLongWord(CharSequence text, int start, int end) throws IOException {
+        while (end - start > maxWidth) {
+            if (currentWidth > 0) {
+                writeNewLine();
+            }
+            writeSpan(text, start, start + maxWidth);
+            writeNewLine();
+            start += maxWidth;
+        }
+        return start;
+    }
+
+    private void writeNewLine() throws IOException {
+        if (layoutBuilder != null) {
+            layoutBuilder.newLine();
+        } else {
+            output.append('\n');
+        }
+        currentWidth = 0;
+    }
+
+    private void writeSpace() throws IOException {
+        if (layoutBuilder != null) {
+            layoutBuilder.space();
+        } else {
+            output.append(' ');
+        }
+        currentWidth++;
+    }
+
+    private void writeSpan(CharSequence text, int start, int end) throws IOException {
+        if (layoutBuilder != null) {
+            layoutBuilder.span(start, end);
+        } else {
+            output.append(text, start, end);
+        }
+        currentWidth += end - start;
+    }
+
+    /**
+     * Checks if the character is whitespace as defined by the regular expression \s.
+     *
+     * @param character character to be checked
+     * @return returns true if the character is whitespace
+     */
+    static boolean isWhitespace(char character) {
+        return character == ' ' || character == '\t' || character == '\n'
+                || character == '\u000B' || character == '\f' || character == '\r';
+    }
+}
@@ -1,33 +1,85 @@
 package com.NotFalse.app;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntConsumer;
 
 /**
  * This class is responsible for creating the glossary and updating it.
  * The glossary is a TreeMap, which contains the words as keys and the indexes of the paragraphs
  * which contain the word as values.
+ * The glossary is served from an inverted index, which maps every word to the paragraphs
+ * containing it. The index is kept up to date while the text is edited, so it does not
+ * have to be rebuilt every time it is shown. The index stores the stable ids of the paragraphs,
+ * so inserting or removing a paragraph does not renumber the lists of all words, the ids are
+ * only converted to paragraph numbers when the glossary is shown.
+ * Large texts are rebuilt in parallel: the paragraphs are split into chunks, which are indexed
+ * on a ForkJoinPool and merged afterwards.
+ * Paragraphs stored as TokenParagraphs are not tokenized again: the id of each token in the
+ * vocabulary is mapped to the id of its word once, after that a word is counted by its id.
  */
 public class GlossaryApp {
 
-    private TreeMap<String, List<Integer>> glossary;
+    private static final int MIN_FREQUENCY = 3;
+    private static final int DEFAULT_PARALLEL_THRESHOLD = 10000;
+    private static final int MIN_CHUNK_SIZE = 1000;
+
+    // the words reaching the minimum frequency and the ids of the paragraphs containing them
+    private TreeMap<String, PostingList> glossary;
+    private WordFrequencyTable wordFrequency;
+    private PostingList[] wordParagraphs;
+    private ParagraphIds paragraphIds;
+    // vocabulary of the token paragraphs and the word id + 1 of each of its tokens, 0 if unknown
+    private Vocabulary vocabulary;
+    private int[] tokenWordIds;
+    private int parallelThreshold;
+    private int parallelism;
+    private ForkJoinPool pool;
 
     /**
-     * Constructor for GlossaryApp.
+     * Constructor for GlossaryApp. Texts with at least 10000 paragraphs are rebuilt
+     * in parallel using all available processors.
      */
     public GlossaryApp() {
+        this(DEFAULT_PARALLEL_THRESHOLD, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor for GlossaryApp.
+     *
+     * @param parallelThreshold minimum number of paragraphs for a parallel rebuild
+     * @param parallelism       number of threads used for a parallel rebuild, 1 disables it
+     */
+    public GlossaryApp(int parallelThreshold, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
         glossary = new TreeMap<>();
+        wordFrequency = new WordFrequencyTable();
+        wordParagraphs = new PostingList[0];
+        paragraphIds = new ParagraphIds(0);
+        this.parallelThreshold = parallelThreshold;
+        this.parallelism = parallelism;
     }
 
     /**
      * Updates the glossary with the new text by creating a new glossary.
+     * The new glossary uses the same settings and the same pool for parallel rebuilds,
+     * which is created by this glossary if necessary, so repeated rebuilds share one pool.
      *
      * @param text new text to be mapped
      * @return returns a new GlossaryApp
      */
     public GlossaryApp rebuildGlossary(List<String> text) {
-        GlossaryApp newGlossary = new GlossaryApp();
-        newGlossary.computeWordFrequency(text);
-        newGlossary.insertEntriesToGlossary(text);
+        GlossaryApp newGlossary = new GlossaryApp(parallelThreshold, parallelism);
+        if (parallelism > 1 && text.size() >= parallelThreshold) {
+            newGlossary.pool = getPool();
+            newGlossary.insertEntriesInParallel(text);
+        } else {
+            newGlossary.pool = pool;
+            newGlossary.insertEntriesToGlossary(text);
+        }
         return newGlossary;
     }
 
@@ -38,34 +90,20 @@ public class GlossaryApp {
      * @param text text to be mapped
      */
     Map<String, Integer> computeWordFrequency(List<String> text) {
-        Map<String, Integer> wordFrequency = new HashMap<>();
+        WordFrequencyTable frequencyTable = new WordFrequencyTable();
         for (String paragraph : text) {
-            String cleanedParagraph = filterParagraph(paragraph);
-            String[] words = cleanedParagraph.split(" ");
-            for (String word : words) {
-                if (!wordFrequency.containsKey(word)) {
-                    wordFrequency.put(word, 0);
-                }
-                int counter = wordFrequency.get(word);
-                wordFrequency.put(word, ++counter);
-            }
+            WordTokenizer.tokenize(paragraph, (words, start, end) -> frequencyTable.add(words, start, end, 1));
         }
         // filters the words that appear less than 3 times
-        wordFrequency.entrySet().removeIf(entry -> entry.getValue() < 3);
+        Map<String, Integer> wordFrequency = new HashMap<>();
+        for (int id = 0; id < frequencyTable.size(); id++) {
+            if (frequencyTable.getFrequency(id) >= MIN_FREQUENCY) {
+                wordFrequency.put(frequencyTable.getWord(id), frequencyTable.getFrequency(id));
+            }
+        }
         return wordFrequency;
     }
 
-    /**
-     * Filters the paragraph by removing all the non-alphabetic characters and
-     * converting all the characters to lowercase.
-     *
-     * @param paragraphToFilter paragraph to be filtered
-     * @return returns the filtered paragraph
-     */
-    String filterParagraph(String paragraphToFilter) {
-        return paragraphToFilter.replaceAll("[^A-Za-z ]", " ").toLowerCase();
-    }
-
     /**
      * Capitalizes the first letter of the word.
      *
@@ -79,20 +117,228 @@ public class GlossaryApp {
     }
 
     /**
-     * Inserts the entries to the glossary.
+     * Inserts the entries to the glossary. Entries which have been inserted before
+     * are replaced.
      *
      * @param text text to be mapped
      */
     void insertEntriesToGlossary(List<String> text) {
-        for (String word : computeWordFrequency(text).keySet()) {
-            String cleanedWord = capitalizeFirstLetter(word).trim();
-            glossary.computeIfAbsent(cleanedWord, k -> findParagraphIndexes(text, word));
+        glossary.clear();
+        wordFrequency = new WordFrequencyTable();
+        wordParagraphs = new PostingList[0];
+        vocabulary = null;
+        paragraphIds = new ParagraphIds(text.size());
+        for (int i = 0; i < text.size(); i++) {
+            addWords(i, TokenParagraph.paragraphAt(text, i));
+        }
+    }
+
+    /**
+     * Inserts the entries to the glossary like insertEntriesToGlossary, but splits the text
+     * into chunks which are indexed in parallel and merged in order.
+     *
+     * @param text text to be mapped
+     */
+    void insertEntriesInParallel(List<String> text) {
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, text.size() / (parallelism * 4));
+        GlossaryApp index = getPool().invoke(new GlossaryBuildTask(text, 0, text.size(), chunkSize));
+        wordFrequency = index.wordFrequency;
+        wordParagraphs = index.wordParagraphs;
+        vocabulary = null;
+        paragraphIds = new ParagraphIds(text.size());
+        glossary.clear();
+        for (int id = 0; id < wordFrequency.size(); id++) {
+            if (wordFrequency.getFrequency(id) >= MIN_FREQUENCY) {
+                glossary.put(capitalizeFirstLetter(wordFrequency.getWord(id)), wordParagraphs[id]);
+            }
+        }
+    }
+
+    /**
+     * Adds a paragraph which has been inserted into the text at the given position.
+     * The following paragraphs keep their ids, so their numbers change without updating the index.
+     *
+     * @param index     position of the new paragraph, starting at 0
+     * @param paragraph the inserted paragraph
+     */
+    void insertParagraph(int index, CharSequence paragraph) {
+        addWords(paragraphIds.insert(index), paragraph);
+    }
+
+    /**
+     * Removes a paragraph which has been deleted from the text at the given position.
+     *
+     * @param index     position of the deleted paragraph, starting at 0
+     * @param paragraph the deleted paragraph
+     */
+    void removeParagraph(int index, CharSequence paragraph) {
+        removeWords(paragraphIds.getId(index), paragraph);
+        paragraphIds.remove(index);
+    }
+
+    /**
+     * Updates the glossary for a paragraph whose content has been replaced.
+     *
+     * @param index        position of the paragraph, starting at 0
+     * @param oldParagraph the paragraph before the replacement
+     * @param newParagraph the paragraph after the replacement
+     */
+    void replaceParagraph(int index, CharSequence oldParagraph, CharSequence newParagraph) {
+        int paragraphId = paragraphIds.getId(index);
+        removeWords(paragraphId, oldParagraph);
+        addWords(paragraphId, newParagraph);
+    }
+
+    /**
+     * Counts the words of the paragraph and registers the paragraph id for each of them.
+     * Words reaching the minimum frequency are added to the glossary.
+     *
+     * @param paragraphId id of the paragraph
+     * @param paragraph   paragraph to be added
+     */
+    private void addWords(int paragraphId, CharSequence paragraph) {
+        forEachWord(paragraph, true, id -> {
+            wordFrequency.addFrequency(id, 1);
+            getPostingList(id).add(paragraphId);
+            if (wordFrequency.getFrequency(id) == MIN_FREQUENCY) {
+                glossary.put(capitalizeFirstLetter(wordFrequency.getWord(id)), wordParagraphs[id]);
+            }
+        });
+    }
+
+    /**
+     * Removes the words of the paragraph from the counters and the paragraph id from
+     * their indexes. Words falling below the minimum frequency are removed from the glossary.
+     *
+     * @param paragraphId id of the paragraph
+     * @param paragraph   paragraph to be removed
+     */
+    private void removeWords(int paragraphId, CharSequence paragraph) {
+        forEachWord(paragraph, false, id -> {
+            wordFrequency.addFrequency(id, -1);
+            if (wordFrequency.getFrequency(id) == MIN_FREQUENCY - 1) {
+                glossary.remove(capitalizeFirstLetter(wordFrequency.getWord(id)));
+            }
+            wordParagraphs[id].remove(paragraphId);
+        });
+    }
+
+    /**
+     * Passes the id of every word of the paragraph to the action.
+     *
+     * @param paragraph paragraph to be scanned
+     * @param isAdded   true if unknown words are added to the table, otherwise they are skipped
+     * @param action    receives the ids of the words
+     */
+    private void forEachWord(CharSequence paragraph, boolean isAdded, IntConsumer action) {
+        if (paragraph instanceof TokenParagraph tokens) {
+            for (int i = 0; i < tokens.getTokenCount(); i++) {
+                int tokenId = tokens.getTokenId(i);
+                if (tokens.getVocabulary().getKind(tokenId) == Vocabulary.WORD) {
+                    int id = getWordId(tokens.getVocabulary(), tokenId, isAdded);
+                    if (id >= 0) {
+                        action.accept(id);
+                    }
+                }
+            }
+            return;
+        }
+        WordTokenizer.tokenize(paragraph, (words, start, end) -> {
+            int id = isAdded ? wordFrequency.add(words, start, end, 0) : wordFrequency.find(words, start, end);
+            if (id >= 0) {
+                action.accept(id);
+            }
+        });
+    }
+
+    /**
+     * Gets the id of the word of a token. The word is only looked up the first time the token
+     * is seen, after that the id is read from an array.
+     *
+     * @param tokenVocabulary vocabulary containing the token
+     * @param tokenId         id of the token in the vocabulary
+     * @param isAdded         true if an unknown word is added to the table
+     * @return returns the id of the word or -1 if the word is unknown and not added
+     */
+    private int getWordId(Vocabulary tokenVocabulary, int tokenId, boolean isAdded) {
+        if (vocabulary != tokenVocabulary) {
+            vocabulary = tokenVocabulary;
+            tokenWordIds = new int[0];
+        }
+        if (tokenId >= tokenWordIds.length) {
+            tokenWordIds = Arrays.copyOf(tokenWordIds, Math.max(tokenId + 1, tokenWordIds.length * 2));
+        }
+        int id = tokenWordIds[tokenId] - 1;
+        if (id < 0) {
+            String word = tokenVocabulary.getToken(tokenId);
+            id = isAdded ? wordFrequency.add(word, 0, word.length(), 0) : wordFrequency.find(word);
+            if (id >= 0) {
+                tokenWordIds[tokenId] = id + 1;
+            }
+        }
+        return id;
+    }
+
+    /**
+     * Appends the index of the following paragraphs to this index. All paragraph ids
+     * of the other index have to be greater than the ones of this index.
+     *
+     * @param other index of the following paragraphs
+     */
+    private void appendIndex(GlossaryApp other) {
+        for (int otherId = 0; otherId < other.wordFrequency.size(); otherId++) {
+            String word = other.wordFrequency.getWord(otherId);
+            int id = wordFrequency.add(word, 0, word.length(), other.wordFrequency.getFrequency(otherId));
+            getPostingList(id).addAll(other.wordParagraphs[otherId]);
+        }
+    }
+
+    /**
+     * Gets the posting list of the word with the given id and creates it if necessary.
+     *
+     * @param id id of the word
+     * @return returns the posting list
+     */
+    private PostingList getPostingList(int id) {
+        if (id >= wordParagraphs.length) {
+            wordParagraphs = Arrays.copyOf(wordParagraphs, Math.max(16, id * 2));
+        }
+        if (wordParagraphs[id] == null) {
+            wordParagraphs[id] = new PostingList();
+        }
+        return wordParagraphs[id];
+    }
+
+    /**
+     * Gets the pool for parallel rebuilds and creates it if necessary. A pool with a different
+     * parallelism is shut down and replaced.
+     *
+     * @return returns the pool
+     */
+    ForkJoinPool getPool() {
+        if (pool == null || pool.isShutdown() || pool.getParallelism() != parallelism) {
+            if (pool != null) {
+                pool.shutdown();
+            }
+            pool = new ForkJoinPool(parallelism);
+        }
+        return pool;
+    }
+
+    /**
+     * Shuts down the pool for parallel rebuilds. The glossaries built by this glossary share the
+     * pool, so they create a new one if they are rebuilt in parallel afterwards.
+     */
+    void close() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
         }
     }
 
     /**
      * Finds the indexes of the paragraphs which contain the word and returns them
-     * in an ArrayList.
+     * in an ArrayList. Only whole words are matched, independent of their case.
      *
      * @param text text to be mapped
      * @param word word to be searched
@@ -101,24 +347,129 @@ public class GlossaryApp {
      */
     List<Integer> findParagraphIndexes(List<String> text, String word) {
         List<Integer> indexes = new ArrayList<>();
+        WordFrequencyTable searchedWord = new WordFrequencyTable();
+        searchedWord.add(word, 0, word.length(), 0);
         for (int i = 0; i < text.size(); i++) {
-            String cleanedParagraph = filterParagraph(text.get(i));
-            if (cleanedParagraph.contains(word)) {
-                indexes.add(i + 1);
-            }
+            int paragraphNumber = i + 1;
+            WordTokenizer.tokenize(text.get(i), (words, start, end) -> {
+                boolean isListed = !indexes.isEmpty() && indexes.get(indexes.size() - 1) == paragraphNumber;
+                if (!isListed && searchedWord.find(words, start, end) >= 0) {
+                    indexes.add(paragraphNumber);
+                }
+            });
         }
-        // sorts the indexes
-        Collections.sort(indexes);
         return indexes;
     }
 
     /**
-     * Gets the Glossary Map.
+     * Gets the Glossary Map. The ids of the paragraphs are converted to the current paragraph
+     * numbers, which costs O(log n) per entry.
      *
      * @return returns the Glossary Map
      */
     TreeMap<String, List<Integer>> getGlossary() {
-        return glossary;
+        TreeMap<String, List<Integer>> numberedGlossary = new TreeMap<>();
+        for (Map.Entry<String, PostingList> entry : glossary.entrySet()) {
+            PostingList paragraphs = entry.getValue();
+            int[] paragraphNumbers = new int[paragraphs.size()];
+            for (int i = 0; i < paragraphNumbers.length; i++) {
+                paragraphNumbers[i] = paragraphIds.getIndex(paragraphs.get(i)) + 1;
+            }
+            Arrays.sort(paragraphNumbers);
+            List<Integer> numbers = new ArrayList<>(paragraphNumbers.length);
+            for (int paragraphNumber : paragraphNumbers) {
+                numbers.add(paragraphNumber);
+            }
+            numberedGlossary.put(entry.getKey(), numbers);
+        }
+        return numberedGlossary;
+    }
+
+    /**
+     * Gets the number of words in the glossary without converting their paragraph ids.
+     *
+     * @return returns the number of entries
+     */
+    int getEntryCount() {
+        return glossary.size();
+    }
+
+    /**
+     * Getter for the minimum number of paragraphs for a parallel rebuild.
+     *
+     * @return the parallel threshold
+     */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Setter for the minimum number of paragraphs for a parallel rebuild.
+     *
+     * @param parallelThreshold
+     */
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Getter for the number of threads used for a parallel rebuild.
+     *
+     * @return the parallelism
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Setter for the number of threads used for a parallel rebuild. 1 disables parallel rebuilds.
+     *
+     * @param parallelism
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Indexes a range of paragraphs. Ranges larger than the chunk size are split in two halves,
+     * which are indexed in parallel and merged afterwards. The tasks are never serialized.
+     */
+    @SuppressWarnings("serial")
+    private static class GlossaryBuildTask extends RecursiveTask<GlossaryApp> {
+
+        private final List<String> text;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        GlossaryBuildTask(List<String> text, int from, int to, int chunkSize) {
+            this.text = text;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected GlossaryApp compute() {
+            if (to - from <= chunkSize) {
+                GlossaryApp index = new GlossaryApp(Integer.MAX_VALUE, 1);
+                // the ids of a new text are the positions of the paragraphs
+                for (int i = from; i < to; i++) {
+                    index.addWords(i, TokenParagraph.paragraphAt(text, i));
+                }
+                return index;
+            }
+            int middle = (from + to) >>> 1;
+            GlossaryBuildTask firstHalf = new GlossaryBuildTask(text, from, middle, chunkSize);
+            firstHalf.fork();
+            GlossaryApp secondIndex = new GlossaryBuildTask(text, middle, to, chunkSize).compute();
+            GlossaryApp firstIndex = firstHalf.join();
+            firstIndex.appendIndex(secondIndex);
+            return firstIndex;
+        }
     }
 
 }
@@ -1,19 +1,86 @@
 package com.NotFalse.app;
 
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Locale;
 import java.util.Scanner;
 
 public class InputReceiver {
 
+    private static final String FORMAT_COMMAND = "format";
+
     final Scanner input;
-    private final String allowedRegex = "([^A-z äöüÄÖÜ 0-9 .,:;\\-!?'()\\\"%@+*\\\\[\\\\]{}\\\\\\\\&#$])";
+    // the underscore is part of command names like format_fix
+    private static final String ALLOWED_SPECIAL_CHARACTERS = " äöüÄÖÜ.,:;-!?'()\"%@+*[]{}\\&#$_";
+    // allowed characters are all below 256, every other character is removed
+    private static final boolean[] ALLOWED_CHARACTERS = new boolean[256];
+
+    static {
+        for (char character = 'a'; character <= 'z'; character++) {
+            ALLOWED_CHARACTERS[character] = true;
+            ALLOWED_CHARACTERS[Character.toUpperCase(character)] = true;
+        }
+        for (char character = '0'; character <= '9'; character++) {
+            ALLOWED_CHARACTERS[character] = true;
+        }
+        for (int i = 0; i < ALLOWED_SPECIAL_CHARACTERS.length(); i++) {
+            ALLOWED_CHARACTERS[ALLOWED_SPECIAL_CHARACTERS.charAt(i)] = true;
+        }
+    }
 
     public InputReceiver() {
-        input = new Scanner(System.in);
+        this(System.in);
+    }
+
+    public InputReceiver(InputStream inputStream) {
+        input = new Scanner(inputStream);
     }
 
+    /**
+     * Constructor for an InputReceiver decoding the input with the given charset instead of
+     * the default charset.
+     *
+     * @param inputStream stream of the commands
+     * @param charset     charset of the input
+     */
+    public InputReceiver(InputStream inputStream, Charset charset) {
+        input = new Scanner(inputStream, charset);
+    }
+
+    public boolean hasNextLine() {
+        return input.hasNextLine();
+    }
+
+    /**
+     * Removes all characters which are not allowed: letters, digits, umlauts, spaces and
+     * the characters .,:;-!?'()"%@+*[]{}\&#$_ are kept.
+     *
+     * @param textToFilter text typed by the user
+     * @return returns the text without the characters which are not allowed, or the same
+     * String if all characters are allowed
+     */
     public String filterInput(String textToFilter) {
-        // implementation
-        return textToFilter.replaceAll(allowedRegex, "");
+        int length = textToFilter.length();
+        int firstRemoved = 0;
+        while (firstRemoved < length && isAllowed(textToFilter.charAt(firstRemoved))) {
+            firstRemoved++;
+        }
+        if (firstRemoved == length) {
+            return textToFilter;
+        }
+        StringBuilder filtered = new StringBuilder(length - 1);
+        filtered.append(textToFilter, 0, firstRemoved);
+        for (int i = firstRemoved + 1; i < length; i++) {
+            char character = textToFilter.charAt(i);
+            if (isAllowed(character)) {
+                filtered.append(character);
+            }
+        }
+        return filtered.toString();
+    }
+
+    private static boolean isAllowed(char character) {
+        return character < ALLOWED_CHARACTERS.length && ALLOWED_CHARACTERS[character];
     }
 
     public String unsplittedText() {
@@ -25,20 +92,63 @@ public class InputReceiver {
         return inputText;
     }
 
+    public String unfilteredText() {
+        return input.nextLine().trim();
+    }
+
+    /**
+     * Reads a command line and splits it into the command and its argument.
+     *
+     * @return returns the command or the command and its argument
+     */
     public String[] splitInput() {
-        String[] splitedtext = new String[1];
-        String inputText = input.nextLine();
-        inputText = filterInput(inputText.trim());
-        splitedtext[0] = inputText;
-        for (Commands command : Commands.values()) {
-            if (inputText.toLowerCase().contains(command.getCommand()+" ")) {
-                // if a command contains then split it in two parts
-                splitedtext = inputText.toLowerCase().split(command.getCommand()+ " ");
-                splitedtext[0] = command.getCommand();
+        return parseCommandLine(filterInput(input.nextLine()));
+    }
+
+    /**
+     * Splits a command line into the command and its argument in one pass over the line.
+     * Only the first word is used as the command, so the argument may contain command words.
+     * "format raw" and "format fix" are read as the commands format_raw and format_fix.
+     *
+     * @param line command line typed by the user
+     * @return returns the command or the command and its argument
+     */
+    static String[] parseCommandLine(String line) {
+        int length = line.length();
+        int start = skipWhitespace(line, 0);
+        int end = skipWord(line, start);
+        String command = line.substring(start, end);
+        int argumentStart = skipWhitespace(line, end);
+        if (command.equalsIgnoreCase(FORMAT_COMMAND)) {
+            int formatEnd = skipWord(line, argumentStart);
+            String format = line.substring(argumentStart, formatEnd);
+            if (format.equalsIgnoreCase("raw") || format.equalsIgnoreCase("fix")) {
+                command = FORMAT_COMMAND + "_" + format.toLowerCase(Locale.ROOT);
+                argumentStart = skipWhitespace(line, formatEnd);
             }
         }
+        int argumentEnd = length;
+        while (argumentEnd > argumentStart && Character.isWhitespace(line.charAt(argumentEnd - 1))) {
+            argumentEnd--;
+        }
+        if (argumentStart == argumentEnd) {
+            return new String[]{command};
+        }
+        return new String[]{command, line.substring(argumentStart, argumentEnd)};
+    }
 
-        return splitedtext;
+    private static int skipWhitespace(String line, int position) {
+        while (position < line.length() && Character.isWhitespace(line.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    private static int skipWord(String line, int position) {
+        while (position < line.length() && !Character.isWhitespace(line.charAt(position))) {
+            position++;
+        }
+        return position;
     }
 
 }
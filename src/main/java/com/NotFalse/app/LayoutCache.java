@@ -0,0 +1,226 @@
+package com.NotFalse.app;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache for the layouts of paragraphs formatted with a fixed width. The layouts are stored
+ * per paragraph content and looked up by width and start column. Every paragraph also keeps
+ * the positions of its words, which do not depend on the width. If the estimated memory
+ * exceeds the capacity, the least recently used paragraphs are evicted. The estimate includes
+ * the paragraphs used as keys, which are copies of the text if it is stored off-heap.
+ * A paragraph is either a String, found by its content, or a TokenParagraph, found by its
+ * identity. A token paragraph is never changed, an edit stores a new one.
+ * The text is formatted from start to end, so the cache is only used for texts whose layouts
+ * fit into it, see fits. For a larger text the least recently used paragraph is always the next
+ * one to be formatted, every layout would be evicted before it is used again.
+ */
+final class LayoutCache {
+
+    static final long DEFAULT_CAPACITY = 16L * 1024 * 1024;
+
+    private static final int MAX_LAYOUTS_PER_PARAGRAPH = 8;
+    private static final long ENTRY_SIZE = 64;
+    // estimated memory of a paragraph with its word breaks and one layout
+    private static final long ESTIMATED_BYTES_PER_CHARACTER = 5;
+    private static final long ESTIMATED_BYTES_PER_PARAGRAPH = ENTRY_SIZE + 64;
+
+    private final LinkedHashMap<CharSequence, Entry> entries;
+    private final long capacity;
+    private long size;
+
+    /**
+     * Constructor for LayoutCache.
+     *
+     * @param capacity maximum estimated memory of the cached layouts in bytes
+     */
+    LayoutCache(long capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("The capacity must not be negative: " + capacity);
+        }
+        this.capacity = capacity;
+        // access order turns the map into a least recently used list
+        entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Checks if the layouts of a whole text with one width fit into the cache.
+     *
+     * @param characterCount number of characters of the text
+     * @param paragraphCount number of paragraphs of the text
+     * @return returns true if the estimated memory of the layouts does not exceed the capacity
+     */
+    boolean fits(long characterCount, int paragraphCount) {
+        return ESTIMATED_BYTES_PER_CHARACTER * characterCount
+                + ESTIMATED_BYTES_PER_PARAGRAPH * paragraphCount <= capacity;
+    }
+
+    /**
+     * Gets the layout of the paragraph.
+     *
+     * @param paragraph   content of the paragraph
+     * @param width       maximum line width
+     * @param startColumn column where the paragraph starts
+     * @return returns the layout or null if it is not cached
+     */
+    ParagraphLayout get(CharSequence paragraph, int width, int startColumn) {
+        Entry entry = entries.get(paragraph);
+        return entry == null ? null : entry.get(width, startColumn);
+    }
+
+    /**
+     * Stores the layout of the paragraph and evicts old paragraphs if the capacity is exceeded.
+     *
+     * @param paragraph   content of the paragraph
+     * @param width       maximum line width
+     * @param startColumn column where the paragraph starts
+     * @param layout      layout to be stored
+     */
+    void put(CharSequence paragraph, int width, int startColumn, ParagraphLayout layout) {
+        Entry entry = getOrCreateEntry(paragraph);
+        size += entry.put(width, startColumn, layout);
+        evict();
+    }
+
+    /**
+     * Gets the positions of the words of the paragraph.
+     *
+     * @param paragraph content of the paragraph
+     * @return returns pairs of the start and end index of every word or null if they are not cached
+     */
+    int[] getWordBreaks(CharSequence paragraph) {
+        Entry entry = entries.get(paragraph);
+        return entry == null ? null : entry.wordBreaks;
+    }
+
+    /**
+     * Stores the positions of the words of the paragraph.
+     *
+     * @param paragraph  content of the paragraph
+     * @param wordBreaks pairs of the start and end index of every word
+     */
+    void putWordBreaks(CharSequence paragraph, int[] wordBreaks) {
+        Entry entry = getOrCreateEntry(paragraph);
+        size -= entry.getEstimatedSize();
+        entry.wordBreaks = wordBreaks;
+        size += entry.getEstimatedSize();
+        evict();
+    }
+
+    /**
+     * Removes all layouts of the paragraph, e.g. because it has been edited.
+     *
+     * @param paragraph content of the paragraph
+     */
+    void invalidate(CharSequence paragraph) {
+        Entry entry = entries.remove(paragraph);
+        if (entry != null) {
+            size -= getKeySize(paragraph) + entry.getEstimatedSize();
+        }
+    }
+
+    /**
+     * Removes all layouts.
+     */
+    void clear() {
+        entries.clear();
+        size = 0;
+    }
+
+    /**
+     * Gets the estimated memory used by the cached layouts.
+     *
+     * @return returns the size in bytes
+     */
+    long getEstimatedSize() {
+        return size;
+    }
+
+    /**
+     * Gets the number of cached paragraphs.
+     *
+     * @return returns the number of paragraphs
+     */
+    int getParagraphCount() {
+        return entries.size();
+    }
+
+    private Entry getOrCreateEntry(CharSequence paragraph) {
+        Entry entry = entries.get(paragraph);
+        if (entry == null) {
+            entry = new Entry();
+            entries.put(paragraph, entry);
+            size += getKeySize(paragraph);
+        }
+        return entry;
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<CharSequence, Entry>> iterator = entries.entrySet().iterator();
+        while (size > capacity && iterator.hasNext()) {
+            Map.Entry<CharSequence, Entry> entry = iterator.next();
+            size -= getKeySize(entry.getKey()) + entry.getValue().getEstimatedSize();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Estimates the memory of an entry without its layouts, including the paragraph it is
+     * stored for.
+     */
+    private static long getKeySize(CharSequence paragraph) {
+        if (paragraph instanceof TokenParagraph tokens) {
+            return ENTRY_SIZE + 4L * tokens.getTokenCount();
+        }
+        return ENTRY_SIZE + 2L * paragraph.length();
+    }
+
+    /**
+     * Word positions and layouts of one paragraph for different widths and start columns.
+     */
+    private static final class Entry {
+
+        private int[] wordBreaks;
+        private final int[] widths = new int[MAX_LAYOUTS_PER_PARAGRAPH];
+        private final int[] startColumns = new int[MAX_LAYOUTS_PER_PARAGRAPH];
+        private final ParagraphLayout[] layouts = new ParagraphLayout[MAX_LAYOUTS_PER_PARAGRAPH];
+        private int next;
+
+        ParagraphLayout get(int width, int startColumn) {
+            for (int i = 0; i < layouts.length; i++) {
+                if (layouts[i] != null && widths[i] == width && startColumns[i] == startColumn) {
+                    return layouts[i];
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Stores the layout, replacing the oldest one if all places are used.
+         *
+         * @return returns the change of the estimated size
+         */
+        long put(int width, int startColumn, ParagraphLayout layout) {
+            long delta = layout.getEstimatedSize();
+            if (layouts[next] != null) {
+                delta -= layouts[next].getEstimatedSize();
+            }
+            widths[next] = width;
+            startColumns[next] = startColumn;
+            layouts[next] = layout;
+            next = (next + 1) % layouts.length;
+            return delta;
+        }
+
+        long getEstimatedSize() {
+            long size = wordBreaks == null ? 0 : 16 + 4L * wordBreaks.length;
+            for (ParagraphLayout layout : layouts) {
+                if (layout != null) {
+                    size += layout.getEstimatedSize();
+                }
+            }
+            return size;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.NotFalse.app;
+
+import java.io.IOException;
+
+/**
+ * Index of the lines of the fixed format. For every paragraph it stores the line and the column
+ * at which the paragraph starts, so the paragraph containing a line is found by a binary search
+ * in O(log n), and a range of lines is written by formatting only the paragraphs it contains.
+ * The index is built once for a snapshot and a width, without keeping the formatted text.
+ */
+final class LineIndex {
+
+    private final ParagraphList.Snapshot text;
+    private final int maxWidth;
+    // line on which every paragraph starts, counted from 0
+    private final int[] firstLines;
+    private final int[] startColumns;
+    private final int lineCount;
+
+    private LineIndex(ParagraphList.Snapshot text, int maxWidth, int[] firstLines, int[] startColumns,
+                      int lineCount) {
+        this.text = text;
+        this.maxWidth = maxWidth;
+        this.firstLines = firstLines;
+        this.startColumns = startColumns;
+        this.lineCount = lineCount;
+    }
+
+    /**
+     * Formats the text once and records where every paragraph starts.
+     *
+     * @param text        paragraphs to be indexed
+     * @param maxWidth    maximum number of characters per line
+     * @param layoutCache cache for the paragraph layouts, may be null
+     * @return returns the index of the lines
+     */
+    static LineIndex build(ParagraphList.Snapshot text, int maxWidth, LayoutCache layoutCache) {
+        LineFilter counter = new LineFilter(0, -1, 0);
+        FixedWidthFormatter formatter = new FixedWidthFormatter(maxWidth, counter, layoutCache);
+        int[] firstLines = new int[text.size()];
+        int[] startColumns = new int[text.size()];
+        try {
+            for (int i = 0; i < text.size(); i++) {
+                firstLines[i] = counter.getLine();
+                startColumns[i] = formatter.getCurrentWidth();
+                formatter.appendParagraph(TokenParagraph.paragraphAt(text, i));
+            }
+        } catch (IOException e) {
+            // the counter does not throw IOExceptions
+            throw new IllegalStateException(e);
+        }
+        return new LineIndex(text, maxWidth, firstLines, startColumns, text.isEmpty() ? 0 : counter.getLine() + 1);
+    }
+
+    /**
+     * Checks if the index describes the given text formatted with the given width.
+     *
+     * @param text     current snapshot of the text
+     * @param maxWidth current width of the fixed format
+     * @return returns true if the index can be used
+     */
+    boolean isBuiltFrom(ParagraphList.Snapshot text, int maxWidth) {
+        return this.text == text && this.maxWidth == maxWidth;
+    }
+
+    /**
+     * Gets the number of lines of the formatted text.
+     *
+     * @return returns the number of lines
+     */
+    int getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * Finds the first paragraph which may write to the line. All paragraphs before it end
+     * on an earlier line.
+     *
+     * @param line line number, starting at 0
+     * @return returns the index of the paragraph
+     */
+    int findParagraph(int line) {
+        // the last paragraph starting before the line, it may continue on the line
+        int low = 0;
+        int high = firstLines.length - 1;
+        int result = 0;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (firstLines[middle] < line) {
+                result = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Writes a range of lines of the formatted text, separated by line breaks.
+     *
+     * @param fromLine    first line, starting at 0
+     * @param toLine      last line, inclusive
+     * @param output      destination of the lines
+     * @param layoutCache cache for the paragraph layouts, may be null
+     * @throws IOException if the output cannot be written
+     */
+    void writeLines(int fromLine, int toLine, Appendable output, LayoutCache layoutCache) throws IOException {
+        if (fromLine < 0 || toLine >= lineCount || fromLine > toLine) {
+            throw new IndexOutOfBoundsException("Lines: " + fromLine + " - " + toLine + ", Count: " + lineCount);
+        }
+        int paragraph = findParagraph(fromLine);
+        LineFilter filter = new LineFilter(fromLine, toLine, firstLines[paragraph]);
+        filter.output = output;
+        FixedWidthFormatter formatter = new FixedWidthFormatter(maxWidth, filter, layoutCache,
+                startColumns[paragraph]);
+        for (int i = paragraph; i < text.size() && filter.getLine() <= toLine; i++) {
+            formatter.appendParagraph(TokenParagraph.paragraphAt(text, i));
+        }
+    }
+
+    /**
+     * Counts the lines written by the formatter and passes only the characters of a range of
+     * lines to the output. The formatter writes every line break as a single character.
+     */
+    private static final class LineFilter implements Appendable {
+
+        private final int fromLine;
+        private final int toLine;
+        private int line;
+        private Appendable output;
+
+        LineFilter(int fromLine, int toLine, int firstLine) {
+            this.fromLine = fromLine;
+            this.toLine = toLine;
+            line = firstLine;
+        }
+
+        int getLine() {
+            return line;
+        }
+
+        @Override
+        public Appendable append(CharSequence text) throws IOException {
+            return append(text, 0, text.length());
+        }
+
+        @Override
+        public Appendable append(CharSequence text, int start, int end) throws IOException {
+            if (isWritten()) {
+                output.append(text, start, end);
+            }
+            return this;
+        }
+
+        @Override
+        public Appendable append(char character) throws IOException {
+            if (character == '\n') {
+                // the break after the last line of the range is not written
+                if (isWritten() && line < toLine) {
+                    output.append(character);
+                }
+                line++;
+            } else if (isWritten()) {
+                output.append(character);
+            }
+            return this;
+        }
+
+        private boolean isWritten() {
+            return output != null && line >= fromLine && line <= toLine;
+        }
+    }
+}
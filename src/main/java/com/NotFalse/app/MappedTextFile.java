@@ -0,0 +1,179 @@
+package com.NotFalse.app;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads and saves texts as UTF-8 files with one paragraph per line.
+ * Loaded files are memory mapped, so their paragraphs are not copied onto the heap and are
+ * decoded again whenever they are read. Loading is not lazy though: the whole mapping is scanned
+ * for line breaks, and paragraphs with other than ASCII characters are decoded once to count
+ * their characters, so loading still takes time proportional to the size of the file.
+ * Line breaks inside a paragraph are saved as spaces, so every paragraph is loaded again as one.
+ * Saving collects the paragraphs in batches of buffers which are written with one call.
+ */
+final class MappedTextFile {
+
+    private static final int WRITE_BATCH_SIZE = 1024;
+    private static final ByteBuffer NEW_LINE = ByteBuffer.wrap(new byte[]{'\n'}).asReadOnlyBuffer();
+
+    private MappedTextFile() {
+    }
+
+    /**
+     * Maps the file into memory and splits it into paragraphs at the line breaks.
+     * All bytes of the file are read by this method.
+     *
+     * @param path file to be loaded
+     * @return returns the paragraphs of the file
+     * @throws IOException if the file cannot be read or is larger than 2 GB
+     */
+    static List<CharSequence> load(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("The file is too large to be loaded: " + path);
+            }
+            // the mapping stays valid after the channel has been closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        List<CharSequence> paragraphs = new ArrayList<>();
+        int limit = buffer.limit();
+        int start = 0;
+        for (int i = 0; i < limit; i++) {
+            if (buffer.get(i) == '\n') {
+                paragraphs.add(new Utf8Paragraph(buffer, start, lineEnd(buffer, start, i)));
+                start = i + 1;
+            }
+        }
+        if (start < limit) {
+            paragraphs.add(new Utf8Paragraph(buffer, start, lineEnd(buffer, start, limit)));
+        }
+        return paragraphs;
+    }
+
+    /**
+     * Writes the paragraphs to the file, one per line. The text is written to a temporary file
+     * first, which then replaces the file, so a file which is still mapped is not modified.
+     *
+     * @param paragraphs paragraphs to be saved
+     * @param path       destination file
+     * @throws IOException if the file cannot be written
+     */
+    static void save(ParagraphList paragraphs, Path path) throws IOException {
+        save(paragraphs.snapshot(), path);
+    }
+
+    /**
+     * Writes the paragraphs of the snapshot to the file, one per line. The snapshot does not
+     * change, so the text can be edited while it is saved.
+     *
+     * @param paragraphs snapshot of the paragraphs to be saved
+     * @param path       destination file
+     * @throws IOException if the file cannot be written
+     */
+    static void save(ParagraphList.Snapshot paragraphs, Path path) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Path temporaryFile = Files.createTempFile(directory, ".texteditor", ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer[] batch = new ByteBuffer[WRITE_BATCH_SIZE * 2];
+                int batchSize = 0;
+                for (int i = 0; i < paragraphs.size(); i++) {
+                    batch[batchSize++] = encode(paragraphs.getSource(i));
+                    batch[batchSize++] = NEW_LINE.duplicate();
+                    if (batchSize == batch.length) {
+                        writeFully(channel, batch, batchSize);
+                        batchSize = 0;
+                    }
+                }
+                writeFully(channel, batch, batchSize);
+            }
+            try {
+                Files.move(temporaryFile, path, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    /**
+     * Gets the bytes of the paragraph as it is saved. Mapped and off-heap paragraphs without line
+     * breaks are not decoded, their bytes are taken directly from their buffers.
+     *
+     * @param paragraph paragraph to be encoded
+     * @return returns the UTF-8 bytes of the paragraph
+     */
+    private static ByteBuffer encode(CharSequence paragraph) {
+        if (paragraph instanceof Utf8Paragraph) {
+            ByteBuffer bytes = ((Utf8Paragraph) paragraph).getBytes();
+            // the bytes of line breaks are never part of other UTF-8 characters
+            if (!hasLineBreak(bytes)) {
+                return bytes;
+            }
+        }
+        return ByteBuffer.wrap(removeLineBreaks(paragraph.toString()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Removes the line breaks of a paragraph, which would split it into several paragraphs when
+     * it is loaded again. Line breaks at the end are removed, the others are replaced by a space.
+     *
+     * @param paragraph paragraph to be saved
+     * @return returns the paragraph without line breaks, or the same String if it has none
+     */
+    private static String removeLineBreaks(String paragraph) {
+        int end = paragraph.length();
+        while (end > 0 && (paragraph.charAt(end - 1) == '\n' || paragraph.charAt(end - 1) == '\r')) {
+            end--;
+        }
+        if (end == paragraph.length() && paragraph.indexOf('\n') < 0) {
+            return paragraph;
+        }
+        return paragraph.substring(0, end).replace("\r\n", " ").replace('\n', ' ');
+    }
+
+    private static boolean hasLineBreak(ByteBuffer bytes) {
+        int limit = bytes.limit();
+        if (limit > 0 && bytes.get(limit - 1) == '\r') {
+            // a carriage return at the end is removed by load
+            return true;
+        }
+        for (int i = bytes.position(); i < limit; i++) {
+            if (bytes.get(i) == '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer[] buffers, int count) throws IOException {
+        if (count == 0) {
+            return;
+        }
+        // a gathering write may write only a part of the buffers
+        while (buffers[count - 1].hasRemaining()) {
+            channel.write(buffers, 0, count);
+        }
+    }
+
+    private static int lineEnd(ByteBuffer buffer, int start, int end) {
+        // removes the carriage return of Windows line breaks
+        return end > start && buffer.get(end - 1) == '\r' ? end - 1 : end;
+    }
+}
@@ -0,0 +1,57 @@
+package com.NotFalse.app;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Stores paragraphs as UTF-8 bytes in direct buffers outside of the heap. The paragraphs are
+ * appended to blocks of BLOCK_SIZE bytes, and the heap only holds a small Utf8Paragraph with
+ * the position of the bytes, so the garbage collector does not have to copy or scan the text.
+ * Stored bytes are never changed. The space of removed paragraphs is not reused, a block is
+ * released when no paragraph refers to it any more.
+ */
+final class OffHeapTextStore {
+
+    static final int BLOCK_SIZE = 1 << 24;
+
+    private ByteBuffer block;
+    private int position;
+    private long allocatedBytes;
+
+    /**
+     * Copies the paragraph out of the heap.
+     *
+     * @param paragraph paragraph to be stored
+     * @return returns the stored paragraph, which is decoded when it is read
+     */
+    Utf8Paragraph store(CharSequence paragraph) {
+        byte[] bytes = paragraph.toString().getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > BLOCK_SIZE / 4) {
+            // large paragraphs get their own buffer, so they do not leave half of a block empty
+            return new Utf8Paragraph(allocate(bytes.length).put(0, bytes), 0, bytes.length);
+        }
+        if (block == null || position + bytes.length > block.capacity()) {
+            block = allocate(BLOCK_SIZE);
+            position = 0;
+        }
+        block.put(position, bytes);
+        Utf8Paragraph stored = new Utf8Paragraph(block, position, position + bytes.length);
+        position += bytes.length;
+        return stored;
+    }
+
+    /**
+     * Gets the number of bytes allocated outside of the heap so far, including the blocks
+     * which may already have been released.
+     *
+     * @return returns the allocated bytes
+     */
+    long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    private ByteBuffer allocate(int capacity) {
+        allocatedBytes += capacity;
+        return ByteBuffer.allocateDirect(capacity);
+    }
+}
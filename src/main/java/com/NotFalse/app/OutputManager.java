@@ -1,61 +1,247 @@
 package com.NotFalse.app;
 
-import java.util.logging.ConsoleHandler;
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.logging.Handler;
 import java.util.logging.Level;
+import java.util.logging.LogRecord;
 import java.util.logging.SimpleFormatter;
 
+/**
+ * Creates all messages and the output of the editor. The output is either written directly
+ * or handed over to an AsyncOutputSink, so the editing thread does not wait for the console.
+ * The log messages are written by one handler, which is installed only once. Its level can be
+ * set with the system property texteditor.logLevel or with setLogLevel, OFF disables logging.
+ */
 public class OutputManager {
 
+    static final String LOG_LEVEL_PROPERTY = "texteditor.logLevel";
+
     private static final java.util.logging.Logger LOGGER = java.util.logging.Logger.getLogger(OutputManager.class.getName());
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+    private static final int TEXT_BUFFER_SIZE = 1 << 14;
+
+    static {
+        Handler logHandler = new AsyncLogHandler();
+        logHandler.setLevel(Level.ALL);
+        logHandler.setFormatter(new SimpleFormatter());
+        // the handler is added once, and the messages are not logged a second time by the root logger
+        LOGGER.addHandler(logHandler);
+        LOGGER.setUseParentHandlers(false);
+        LOGGER.setLevel(parseLogLevel(System.getProperty(LOG_LEVEL_PROPERTY)));
+    }
 
-    Handler consoleHandler = new ConsoleHandler();
+    private final PrintStream out;
+    private final PrintStream err;
+    private final boolean isInteractive;
+    private final boolean isLogged;
+    private final AsyncOutputSink sink;
+    private int errorCount;
 
     public OutputManager() {
-        // Initialization code here
-        // Set the logging level for the handler
-        consoleHandler.setLevel(Level.ALL);
+        this(System.out, System.err, true);
+    }
+
+    /**
+     * Constructor for an OutputManager writing directly to the given streams. Without interaction
+     * no prompts, welcome or exit messages are shown and nothing is logged.
+     *
+     * @param out           stream for the text and the info messages
+     * @param err           stream for the error messages
+     * @param isInteractive true if a user is typing the commands
+     */
+    public OutputManager(PrintStream out, PrintStream err, boolean isInteractive) {
+        this(out, err, isInteractive, false);
+    }
+
+    /**
+     * Constructor for an OutputManager writing to the given streams. Asynchronous output is
+     * written by a background thread and is only complete after flush or close.
+     *
+     * @param out            stream for the text and the info messages
+     * @param err            stream for the error messages
+     * @param isInteractive  true if a user is typing the commands
+     * @param isAsynchronous true if the output is written by a background thread
+     */
+    public OutputManager(PrintStream out, PrintStream err, boolean isInteractive, boolean isAsynchronous) {
+        this(out, err, isInteractive, isAsynchronous, isInteractive);
+    }
+
+    /**
+     * Constructor for an OutputManager which decides separately whether the messages are logged.
+     * The sessions of the server are interactive, but their messages are sent to the client only.
+     *
+     * @param out            stream for the text and the info messages
+     * @param err            stream for the error messages
+     * @param isInteractive  true if a user is typing the commands
+     * @param isAsynchronous true if the output is written by a background thread
+     * @param isLogged       true if the info and error messages are logged
+     */
+    public OutputManager(PrintStream out, PrintStream err, boolean isInteractive, boolean isAsynchronous,
+                         boolean isLogged) {
+        this.out = out;
+        this.err = err;
+        this.isInteractive = isInteractive;
+        this.isLogged = isLogged;
+        // without interaction, the buffered streams are only flushed by flush and close
+        sink = isAsynchronous
+                ? new AsyncOutputSink(AsyncOutputSink.DEFAULT_CAPACITY, "output-writer", isInteractive) : null;
+    }
+
+    /**
+     * Sets the level of the log messages. Level.OFF disables logging.
+     *
+     * @param level lowest level which is logged
+     */
+    public static void setLogLevel(Level level) {
+        LOGGER.setLevel(level);
+    }
 
-        // Create a formatter for the handler
-        SimpleFormatter formatter = new SimpleFormatter();
-        consoleHandler.setFormatter(formatter);
+    /**
+     * Gets the level of the log messages.
+     *
+     * @return the lowest level which is logged
+     */
+    public static Level getLogLevel() {
+        return LOGGER.getLevel();
+    }
 
-        // Add the handler to the logger
-        LOGGER.addHandler(consoleHandler);
+    static Level parseLogLevel(String level) {
+        if (level == null) {
+            return Level.INFO;
+        }
+        try {
+            return Level.parse(level.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return Level.INFO;
+        }
     }
 
     public void createUserInfoMessage(String logText) {
-        System.out.println(logText);
-        LOGGER.log(Level.INFO, logText);
+        println(out, logText);
+        if (isLogged) {
+            LOGGER.log(Level.INFO, logText);
+        }
     }
 
     public void createUserErrorMessage(String logText) {
-        System.err.println(logText);
-        LOGGER.log(Level.WARNING, logText);
+        errorCount++;
+        createUserNoticeMessage(logText);
+    }
+
+    /**
+     * Shows a negative outcome which is not a failure, e.g. a search without hits.
+     * Unlike an error message it is not counted by getErrorCount.
+     *
+     * @param logText the message to show
+     */
+    public void createUserNoticeMessage(String logText) {
+        println(err, logText);
+        if (isLogged) {
+            LOGGER.log(Level.WARNING, logText);
+        }
     }
 
     public void createWelcomeMessage() {
-        System.out.println("Welcome to the TextEditor! Created by NotFalse.");
+        if (isInteractive) {
+            println(out, "Welcome to the TextEditor! Created by NotFalse.");
+        }
+    }
+
+    /**
+     * Asks the user to enter a text. The prompt is only shown in interactive mode.
+     *
+     * @param prompt text of the prompt
+     */
+    public void createPrompt(String prompt) {
+        if (isInteractive) {
+            print(out, prompt);
+            if (sink == null) {
+                out.flush();
+            }
+        }
     }
 
     public void createMenuOptions() {
-        System.out.println("Here are the commands you can use:");
-        System.out.println(Commands.getAllCommands());
+        println(out, "Here are the commands you can use:");
+        println(out, Commands.getAllCommands());
+    }
+
+    public void createGlossary(Map<String, List<Integer>> glossary) {
+        StringBuilder glossaryText = new StringBuilder("Glossary:").append(LINE_SEPARATOR);
+        StringBuilder indexes = new StringBuilder();
+        for (Map.Entry<String, List<Integer>> entry : glossary.entrySet()) {
+            indexes.setLength(0);
+            for (int index : entry.getValue()) {
+                if (indexes.length() > 0) {
+                    indexes.append(", ");
+                }
+                indexes.append(index);
+            }
+            glossaryText.append(String.format("%-10s %s%n", entry.getKey(), indexes));
+        }
+        print(out, glossaryText.toString());
     }
 
+    /**
+     * Shows the statistics of the commands followed by the size of the document.
+     *
+     * @param commandStatistics table of the command latencies
+     * @param paragraphs        number of paragraphs
+     * @param characters        number of characters
+     * @param glossaryWords     number of words in the glossary, negative if it is not up to date
+     */
+    public void createStatistics(String commandStatistics, int paragraphs, long characters, int glossaryWords) {
+        print(out, commandStatistics);
+        println(out, "Document: " + paragraphs + " paragraphs, " + characters + " characters, "
+                + (glossaryWords < 0 ? "glossary not up to date" : glossaryWords + " glossary words"));
+    }
+
+    /**
+     * Creates a writer for large texts. The writer has to be flushed, but not closed.
+     *
+     * @return returns a buffered writer for the text output
+     */
+    public Writer createTextWriter() {
+        if (sink == null) {
+            return new BufferedWriter(new OutputStreamWriter(out));
+        }
+        // every full buffer is handed over to the writer thread as one text
+        return new BufferedWriter(new Writer() {
+            @Override
+            public void write(char[] buffer, int offset, int length) {
+                sink.write(out, new String(buffer, offset, length));
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        }, TEXT_BUFFER_SIZE);
+    }
 
     public void createMaxStringWarning() {
-        System.err.println("The text you have entered is too long! Please try again or " +
+        createUserErrorMessage("The text you have entered is too long! Please try again or " +
                 "fix the text length.");
     }
 
     public void createMaxIntWarning() {
-        System.err.println("The index you have entered is too large! Please try again.");
+        createUserErrorMessage("The index you have entered is too large! Please try again.");
     }
 
     public void createExitMessage() {
-        System.out.println("Exiting TextEditor...\n" +
-                "Thank you for using TextEditor! Created by NotFalse.");
+        if (isInteractive) {
+            println(out, "Exiting TextEditor...\n" +
+                    "Thank you for using TextEditor! Created by NotFalse.");
+        }
     }
 
     public void createAddMessage(boolean success) {
@@ -98,6 +284,16 @@ public class OutputManager {
         }
     }
 
+    /**
+     * Shows which page of the text has been printed.
+     *
+     * @param page      number of the printed page, starting at 1
+     * @param pageCount number of pages of the text
+     */
+    public void createPageMessage(int page, int pageCount) {
+        createUserInfoMessage("Page " + page + " of " + pageCount);
+    }
+
     public void createReplaceMessage(boolean success) {
         if (success) {
             createUserInfoMessage("Text replaced successfully!");
@@ -106,11 +302,146 @@ public class OutputManager {
         }
     }
 
+    /**
+     * Shows that the words to be replaced have not been found.
+     */
+    public void createNoReplacementMessage() {
+        createUserNoticeMessage("Text has not been replaced");
+    }
+
+    public void createReplaceAllMessage(int changedParagraphs) {
+        if (changedParagraphs > 0) {
+            createUserInfoMessage("Text replaced successfully in " + changedParagraphs + " paragraph(s)!");
+        } else {
+            createNoReplacementMessage();
+        }
+    }
+
+    public void createFormatMessage(boolean success) {
+        if (success) {
+            createUserInfoMessage("Format changed successfully!");
+        } else {
+            createUserErrorMessage("Format has not been changed");
+        }
+    }
+
+    public void createSearchResult(List<Integer> paragraphNumbers) {
+        if (paragraphNumbers.isEmpty()) {
+            createUserNoticeMessage("No paragraph has been found");
+        } else {
+            StringBuilder result = new StringBuilder("Found in paragraph(s): ");
+            for (int i = 0; i < paragraphNumbers.size(); i++) {
+                if (i > 0) {
+                    result.append(", ");
+                }
+                result.append(paragraphNumbers.get(i));
+            }
+            createUserInfoMessage(result.toString());
+        }
+    }
+
+    public void createLoadMessage(boolean success) {
+        if (success) {
+            createUserInfoMessage("Text loaded successfully!");
+        } else {
+            createUserErrorMessage("Text has not been loaded");
+        }
+    }
+
+    public void createSaveMessage(boolean success) {
+        if (success) {
+            createUserInfoMessage("Text saved successfully!");
+        } else {
+            createUserErrorMessage("Text has not been saved");
+        }
+    }
+
     public void createInvalidCommandMessage() {
-        System.out.println("Invalid command! Please try again.");
+        errorCount++;
+        println(out, "Invalid command! Please try again.");
     }
-}
 
+    /**
+     * Writes all buffered output. Asynchronous output is written before this method returns.
+     */
+    public void flush() {
+        for (Handler handler : LOGGER.getHandlers()) {
+            handler.flush();
+        }
+        if (sink != null) {
+            sink.flush();
+        } else {
+            out.flush();
+            err.flush();
+        }
+    }
 
+    /**
+     * Writes all buffered output and stops the writer thread of asynchronous output.
+     * Nothing can be written afterwards.
+     */
+    public void close() {
+        if (sink != null) {
+            sink.close();
+        } else {
+            flush();
+        }
+    }
+
+    private void println(PrintStream stream, String text) {
+        print(stream, text + LINE_SEPARATOR);
+    }
+
+    private void print(PrintStream stream, String text) {
+        if (sink != null) {
+            sink.write(stream, text);
+        } else {
+            stream.print(text);
+        }
+    }
+
+    /**
+     * Gets the number of error messages created so far. Notices like a search without hits
+     * are not counted.
+     *
+     * @return the number of errors
+     */
+    public int getErrorCount() {
+        return errorCount;
+    }
 
+    /**
+     * Log handler which writes the formatted records to System.err on a background thread.
+     * The thread is only started when the first record is logged.
+     */
+    private static final class AsyncLogHandler extends Handler {
 
+        private volatile AsyncOutputSink sink;
+
+        @Override
+        public void publish(LogRecord record) {
+            if (isLoggable(record)) {
+                getSink().write(System.err, getFormatter().format(record));
+            }
+        }
+
+        @Override
+        public void flush() {
+            AsyncOutputSink currentSink = sink;
+            if (currentSink != null) {
+                currentSink.flush();
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+
+        private synchronized AsyncOutputSink getSink() {
+            if (sink == null) {
+                sink = new AsyncOutputSink(AsyncOutputSink.DEFAULT_CAPACITY, "log-writer");
+            }
+            return sink;
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.NotFalse.app;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Stable ids of the paragraphs of a text. An id does not change when paragraphs are inserted
+ * or removed before it, so an index can store ids instead of paragraph numbers and does not
+ * have to renumber its lists after every edit. The ids are kept in text order in a randomized
+ * binary search tree whose nodes are counted, so the position of an id and the id at a
+ * position are found in O(log n), and inserting or removing a paragraph costs O(log n) as
+ * well. Ids of removed paragraphs are reused for new ones.
+ * A new text of n paragraphs gets the ids 0 to n - 1 in text order.
+ */
+final class ParagraphIds {
+
+    private static final int NONE = -1;
+    private static final long SEED = 0x5DEECE66DL;
+
+    private final SplittableRandom random = new SplittableRandom(SEED);
+    private int[] left;
+    private int[] right;
+    private int[] parent;
+    private int[] sizes;
+    private int root = NONE;
+    private int idCount;
+    private int[] freeIds = new int[0];
+    private int freeCount;
+
+    /**
+     * Constructor for the ids of a text with the given number of paragraphs.
+     *
+     * @param paragraphCount number of paragraphs, which get the ids 0 to paragraphCount - 1
+     */
+    ParagraphIds(int paragraphCount) {
+        int capacity = Math.max(8, paragraphCount);
+        left = new int[capacity];
+        right = new int[capacity];
+        parent = new int[capacity];
+        sizes = new int[capacity];
+        idCount = paragraphCount;
+        root = build(0, paragraphCount, NONE);
+    }
+
+    /**
+     * Inserts a paragraph and gives it an id.
+     *
+     * @param index position of the new paragraph, starting at 0
+     * @return returns the id of the new paragraph
+     */
+    int insert(int index) {
+        checkIndex(index, size() + 1);
+        int id = newId();
+        long parts = split(root, index);
+        root = merge(merge((int) (parts >> 32), id), (int) parts);
+        parent[root] = NONE;
+        return id;
+    }
+
+    /**
+     * Removes a paragraph. Its id may be given to a paragraph inserted later.
+     *
+     * @param index position of the paragraph, starting at 0
+     * @return returns the id of the removed paragraph
+     */
+    int remove(int index) {
+        checkIndex(index, size());
+        long first = split(root, index);
+        long second = split((int) first, 1);
+        int id = (int) (second >> 32);
+        root = merge((int) (first >> 32), (int) second);
+        if (root != NONE) {
+            parent[root] = NONE;
+        }
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, Math.max(8, freeCount * 2));
+        }
+        freeIds[freeCount++] = id;
+        return id;
+    }
+
+    /**
+     * Gets the id of the paragraph at the given position.
+     *
+     * @param index position of the paragraph, starting at 0
+     * @return returns the id
+     */
+    int getId(int index) {
+        checkIndex(index, size());
+        int node = root;
+        while (true) {
+            int leftSize = sizeOf(left[node]);
+            if (index < leftSize) {
+                node = left[node];
+            } else if (index == leftSize) {
+                return node;
+            } else {
+                index -= leftSize + 1;
+                node = right[node];
+            }
+        }
+    }
+
+    /**
+     * Gets the current position of the paragraph with the given id.
+     *
+     * @param id id of a paragraph of the text
+     * @return returns the position, starting at 0
+     */
+    int getIndex(int id) {
+        int index = sizeOf(left[id]);
+        for (int node = id; parent[node] != NONE; node = parent[node]) {
+            if (right[parent[node]] == node) {
+                index += sizeOf(left[parent[node]]) + 1;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Gets the ids of all paragraphs in text order. The tree is walked once along its parent
+     * links, so this costs O(n) instead of looking up every position.
+     *
+     * @return returns the ids, the id of the paragraph at position i is at index i
+     */
+    int[] toArray() {
+        int[] ids = new int[size()];
+        int node = root;
+        while (node != NONE && left[node] != NONE) {
+            node = left[node];
+        }
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = node;
+            if (right[node] != NONE) {
+                node = right[node];
+                while (left[node] != NONE) {
+                    node = left[node];
+                }
+            } else {
+                while (parent[node] != NONE && right[parent[node]] == node) {
+                    node = parent[node];
+                }
+                node = parent[node];
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Gets the number of paragraphs.
+     *
+     * @return returns the number of paragraphs
+     */
+    int size() {
+        return sizeOf(root);
+    }
+
+    /**
+     * Builds a balanced tree of the ids from to to - 1 in ascending order.
+     */
+    private int build(int from, int to, int parentNode) {
+        if (from >= to) {
+            return NONE;
+        }
+        int middle = (from + to) >>> 1;
+        parent[middle] = parentNode;
+        left[middle] = build(from, middle, middle);
+        right[middle] = build(middle + 1, to, middle);
+        sizes[middle] = to - from;
+        return middle;
+    }
+
+    /**
+     * Splits the tree into its first count nodes and the rest.
+     *
+     * @return returns the root of the first part in the upper 32 bits and the root of the
+     *         rest in the lower ones
+     */
+    private long split(int node, int count) {
+        if (node == NONE) {
+            return pack(NONE, NONE);
+        }
+        int leftSize = sizeOf(left[node]);
+        if (count <= leftSize) {
+            long parts = split(left[node], count);
+            setLeft(node, (int) parts);
+            update(node);
+            return pack((int) (parts >> 32), node);
+        }
+        long parts = split(right[node], count - leftSize - 1);
+        setRight(node, (int) (parts >> 32));
+        update(node);
+        return pack(node, (int) parts);
+    }
+
+    /**
+     * Joins two trees, all nodes of the first one come before the nodes of the second one.
+     * The root is chosen with a probability proportional to the sizes, which keeps the
+     * expected depth logarithmic.
+     */
+    private int merge(int first, int second) {
+        if (first == NONE) {
+            return second;
+        }
+        if (second == NONE) {
+            return first;
+        }
+        if (random.nextInt(sizes[first] + sizes[second]) < sizes[first]) {
+            setRight(first, merge(right[first], second));
+            update(first);
+            return first;
+        }
+        setLeft(second, merge(first, left[second]));
+        update(second);
+        return second;
+    }
+
+    private void setLeft(int node, int child) {
+        left[node] = child;
+        if (child != NONE) {
+            parent[child] = node;
+        }
+    }
+
+    private void setRight(int node, int child) {
+        right[node] = child;
+        if (child != NONE) {
+            parent[child] = node;
+        }
+    }
+
+    private void update(int node) {
+        sizes[node] = sizeOf(left[node]) + sizeOf(right[node]) + 1;
+    }
+
+    private int sizeOf(int node) {
+        return node == NONE ? 0 : sizes[node];
+    }
+
+    private int newId() {
+        int id;
+        if (freeCount > 0) {
+            id = freeIds[--freeCount];
+        } else {
+            id = idCount++;
+            if (id == sizes.length) {
+                int capacity = sizes.length * 2;
+                left = Arrays.copyOf(left, capacity);
+                right = Arrays.copyOf(right, capacity);
+                parent = Arrays.copyOf(parent, capacity);
+                sizes = Arrays.copyOf(sizes, capacity);
+            }
+        }
+        left[id] = NONE;
+        right[id] = NONE;
+        parent[id] = NONE;
+        sizes[id] = 1;
+        return id;
+    }
+
+    private static long pack(int first, int second) {
+        return (long) first << 32 | (second & 0xFFFFFFFFL);
+    }
+
+    private void checkIndex(int index, int limit) {
+        if (index < 0 || index >= limit) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.NotFalse.app;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Line breaks of a paragraph formatted with a fixed width. The layout stores the operations
+ * needed to write the paragraph: spans of the paragraph, spaces and new lines. It only depends
+ * on the paragraph, the width and the column where the paragraph starts.
+ */
+final class ParagraphLayout {
+
+    static final int NEW_LINE = -1;
+    static final int SPACE = -2;
+
+    // pairs of start and end index of a span, or NEW_LINE or SPACE
+    private final int[] operations;
+    private final int endColumn;
+
+    /**
+     * Constructor for ParagraphLayout.
+     *
+     * @param operations operations to write the paragraph
+     * @param endColumn  column after the last character of the paragraph
+     */
+    ParagraphLayout(int[] operations, int endColumn) {
+        this.operations = operations;
+        this.endColumn = endColumn;
+    }
+
+    /**
+     * Writes the formatted paragraph to the output.
+     *
+     * @param paragraph paragraph the layout has been computed for
+     * @param output    destination of the formatted text
+     * @throws IOException if the output cannot be written
+     */
+    void writeTo(CharSequence paragraph, Appendable output) throws IOException {
+        int i = 0;
+        while (i < operations.length) {
+            int operation = operations[i++];
+            if (operation == NEW_LINE) {
+                output.append('\n');
+            } else if (operation == SPACE) {
+                output.append(' ');
+            } else {
+                output.append(paragraph, operation, operations[i++]);
+            }
+        }
+    }
+
+    /**
+     * Gets the column after the last character of the paragraph.
+     *
+     * @return returns the end column
+     */
+    int getEndColumn() {
+        return endColumn;
+    }
+
+    /**
+     * Estimates the memory used by the layout.
+     *
+     * @return returns the size in bytes
+     */
+    long getEstimatedSize() {
+        return 32 + 16 + 4L * operations.length;
+    }
+
+    /**
+     * Collects the operations of a layout while it is computed.
+     */
+    static final class Builder {
+
+        private int[] operations = new int[16];
+        private int size;
+
+        void newLine() {
+            add(NEW_LINE);
+        }
+
+        void space() {
+            add(SPACE);
+        }
+
+        void span(int start, int end) {
+            add(start);
+            add(end);
+        }
+
+        ParagraphLayout build(int endColumn) {
+            return new ParagraphLayout(Arrays.copyOf(operations, size), endColumn);
+        }
+
+        private void add(int operation) {
+            if (size == operations.length) {
+                operations = Arrays.copyOf(operations, size * 2);
+            }
+            operations[size++] = operation;
+        }
+    }
+}
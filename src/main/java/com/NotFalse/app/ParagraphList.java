@@ -0,0 +1,493 @@
+package com.NotFalse.app;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * List of the paragraphs of the text. A paragraph can be stored as any CharSequence, e.g. as
+ * a part of a memory mapped file, and is only converted to a String when it is read.
+ * The paragraphs are stored in chunks of at most CHUNK_SIZE paragraphs. A Fenwick tree over
+ * the sizes of the chunks finds the chunk of a paragraph number in O(log n), so inserting or
+ * removing a paragraph only moves the paragraphs of one chunk instead of the whole text.
+ * A snapshot of the list is published in O(1) and shares the chunks with the list. The chunks
+ * are copied on write: the first change after a snapshot copies the list of chunks, and the
+ * first change of a chunk copies that chunk, so a snapshot never changes and can be read by
+ * other threads without locks.
+ * The list also keeps the total number of characters, so it has to be replaced rather than
+ * changed when a stored paragraph is mutable.
+ */
+final class ParagraphList extends AbstractList<String> implements RandomAccess {
+
+    static final int CHUNK_SIZE = 512;
+
+    private List<CharSequence[]> chunks;
+    private int[] chunkSizes;
+    // Fenwick tree over chunkSizes, tree[i] is the sum of the sizes of the chunks (i - (i & -i), i]
+    private int[] tree;
+    private int size;
+    private long characterCount;
+    private long version;
+    // the chunks which have been copied since the last snapshot and may be changed in place
+    private boolean[] ownedChunks;
+    private Snapshot snapshot;
+
+    /**
+     * Constructor for an empty ParagraphList.
+     */
+    ParagraphList() {
+        chunks = new ArrayList<>();
+        chunkSizes = new int[0];
+        tree = new int[1];
+        ownedChunks = new boolean[0];
+    }
+
+    /**
+     * Constructor for a ParagraphList containing the given paragraphs.
+     *
+     * @param paragraphs paragraphs to be copied into the list
+     */
+    ParagraphList(Collection<? extends CharSequence> paragraphs) {
+        chunks = new ArrayList<>(paragraphs.size() / CHUNK_SIZE + 1);
+        CharSequence[] chunk = null;
+        int chunkSize = 0;
+        List<Integer> sizes = new ArrayList<>();
+        for (CharSequence paragraph : paragraphs) {
+            if (chunk == null || chunkSize == CHUNK_SIZE) {
+                if (chunk != null) {
+                    sizes.add(chunkSize);
+                }
+                chunk = new CharSequence[CHUNK_SIZE];
+                chunks.add(chunk);
+                chunkSize = 0;
+            }
+            chunk[chunkSize++] = paragraph;
+            characterCount += paragraph.length();
+        }
+        if (chunk != null) {
+            sizes.add(chunkSize);
+        }
+        chunkSizes = new int[sizes.size()];
+        for (int i = 0; i < chunkSizes.length; i++) {
+            chunkSizes[i] = sizes.get(i);
+            size += chunkSizes[i];
+        }
+        ownedChunks = new boolean[chunkSizes.length];
+        Arrays.fill(ownedChunks, true);
+        rebuildTree();
+    }
+
+    @Override
+    public String get(int index) {
+        return getSource(index).toString();
+    }
+
+    /**
+     * Gets the paragraph as it is stored, without converting it to a String.
+     *
+     * @param index position of the paragraph, starting at 0
+     * @return returns the stored paragraph
+     */
+    CharSequence getSource(int index) {
+        checkIndex(index, size);
+        int chunkIndex = findChunk(tree, index);
+        return chunks.get(chunkIndex)[index - offsetOf(tree, chunkIndex)];
+    }
+
+    /**
+     * Publishes the current content as an immutable snapshot. Without changes in between, the
+     * same snapshot is returned again.
+     *
+     * @return returns the snapshot of the current version
+     */
+    Snapshot snapshot() {
+        if (snapshot == null || snapshot.getVersion() != version) {
+            snapshot = new Snapshot(chunks, chunkSizes, tree, size, version);
+            ownedChunks = null;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Gets the version of the content, which changes with every change of the list.
+     *
+     * @return returns the version
+     */
+    long getVersion() {
+        return version;
+    }
+
+    @Override
+    public String set(int index, String paragraph) {
+        return setSource(index, paragraph).toString();
+    }
+
+    /**
+     * Replaces the paragraph without converting it or the old paragraph to a String.
+     *
+     * @param index     position of the paragraph, starting at 0
+     * @param paragraph the new paragraph
+     * @return returns the old paragraph as it was stored
+     */
+    CharSequence setSource(int index, CharSequence paragraph) {
+        checkIndex(index, size);
+        prepareChange();
+        int chunkIndex = findChunk(tree, index);
+        CharSequence[] chunk = ownChunk(chunkIndex);
+        int position = index - offsetOf(tree, chunkIndex);
+        CharSequence oldParagraph = chunk[position];
+        chunk[position] = paragraph;
+        characterCount += paragraph.length() - oldParagraph.length();
+        return oldParagraph;
+    }
+
+    @Override
+    public void add(int index, String paragraph) {
+        addSource(index, paragraph);
+    }
+
+    /**
+     * Inserts the paragraph as it is, without converting it to a String.
+     *
+     * @param index     position of the new paragraph, starting at 0
+     * @param paragraph the new paragraph
+     */
+    void addSource(int index, CharSequence paragraph) {
+        checkIndex(index, size + 1);
+        modCount++;
+        prepareChange();
+        if (chunks.isEmpty()) {
+            chunks.add(new CharSequence[CHUNK_SIZE]);
+            chunkSizes = new int[1];
+            ownedChunks = new boolean[] {true};
+            rebuildTree();
+        }
+        // an index at the end of a chunk is added to that chunk rather than to the next one
+        int chunkIndex = index == size ? chunks.size() - 1 : findChunk(tree, index);
+        int position = index - offsetOf(tree, chunkIndex);
+        if (chunkSizes[chunkIndex] == CHUNK_SIZE) {
+            splitChunk(chunkIndex);
+            if (position > CHUNK_SIZE / 2) {
+                chunkIndex++;
+                position -= CHUNK_SIZE / 2;
+            }
+        }
+        CharSequence[] chunk = ownChunk(chunkIndex);
+        System.arraycopy(chunk, position, chunk, position + 1, chunkSizes[chunkIndex] - position);
+        chunk[position] = paragraph;
+        chunkSizes[chunkIndex]++;
+        updateTree(chunkIndex, 1);
+        size++;
+        characterCount += paragraph.length();
+    }
+
+    @Override
+    public String remove(int index) {
+        checkIndex(index, size);
+        modCount++;
+        prepareChange();
+        int chunkIndex = findChunk(tree, index);
+        CharSequence[] chunk = ownChunk(chunkIndex);
+        int position = index - offsetOf(tree, chunkIndex);
+        CharSequence removed = chunk[position];
+        int chunkSize = chunkSizes[chunkIndex];
+        System.arraycopy(chunk, position + 1, chunk, position, chunkSize - position - 1);
+        chunk[chunkSize - 1] = null;
+        chunkSizes[chunkIndex]--;
+        updateTree(chunkIndex, -1);
+        size--;
+        characterCount -= removed.length();
+        mergeIfSmall(chunkIndex);
+        return removed.toString();
+    }
+
+    @Override
+    public void clear() {
+        modCount++;
+        version++;
+        chunks = new ArrayList<>();
+        chunkSizes = new int[0];
+        tree = new int[1];
+        ownedChunks = new boolean[0];
+        size = 0;
+        characterCount = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of characters of all paragraphs without reading them.
+     *
+     * @return returns the sum of the lengths of the paragraphs
+     */
+    long getCharacterCount() {
+        return characterCount;
+    }
+
+    /**
+     * Iterates over the chunks directly, without looking up every paragraph number.
+     */
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<String>() {
+
+            private final int expectedModCount = modCount;
+            private int chunkIndex;
+            private int position;
+            private int returned;
+
+            @Override
+            public boolean hasNext() {
+                return returned < size;
+            }
+
+            @Override
+            public String next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (returned >= size) {
+                    throw new NoSuchElementException();
+                }
+                while (position == chunkSizes[chunkIndex]) {
+                    chunkIndex++;
+                    position = 0;
+                }
+                returned++;
+                return chunks.get(chunkIndex)[position++].toString();
+            }
+        };
+    }
+
+    /**
+     * Gets the number of chunks. It is used for testing.
+     *
+     * @return returns the number of chunks
+     */
+    int getChunkCount() {
+        return chunks.size();
+    }
+
+    /**
+     * Moves the second half of the full chunk into a new chunk after it. The chunk arrays and
+     * the Fenwick tree are rebuilt, which costs O(n / CHUNK_SIZE), but a chunk is only split
+     * after CHUNK_SIZE / 2 inserts, so the amortized cost of an insert stays O(n / CHUNK_SIZE²).
+     */
+    private void splitChunk(int chunkIndex) {
+        CharSequence[] chunk = ownChunk(chunkIndex);
+        CharSequence[] newChunk = new CharSequence[CHUNK_SIZE];
+        int half = CHUNK_SIZE / 2;
+        System.arraycopy(chunk, half, newChunk, 0, CHUNK_SIZE - half);
+        Arrays.fill(chunk, half, CHUNK_SIZE, null);
+        chunks.add(chunkIndex + 1, newChunk);
+        int[] sizes = new int[chunkSizes.length + 1];
+        System.arraycopy(chunkSizes, 0, sizes, 0, chunkIndex);
+        sizes[chunkIndex] = half;
+        sizes[chunkIndex + 1] = CHUNK_SIZE - half;
+        System.arraycopy(chunkSizes, chunkIndex + 1, sizes, chunkIndex + 2, chunkSizes.length - chunkIndex - 1);
+        chunkSizes = sizes;
+        boolean[] owned = new boolean[ownedChunks.length + 1];
+        System.arraycopy(ownedChunks, 0, owned, 0, chunkIndex + 1);
+        owned[chunkIndex + 1] = true;
+        System.arraycopy(ownedChunks, chunkIndex + 1, owned, chunkIndex + 2, ownedChunks.length - chunkIndex - 1);
+        ownedChunks = owned;
+        rebuildTree();
+    }
+
+    /**
+     * Merges the chunk with its successor if both together fill at most half a chunk,
+     * and removes empty chunks, so the number of chunks stays proportional to the size.
+     */
+    private void mergeIfSmall(int chunkIndex) {
+        if (chunkSizes[chunkIndex] == 0) {
+            removeChunk(chunkIndex);
+            return;
+        }
+        int next = chunkIndex + 1;
+        if (next < chunks.size() && chunkSizes[chunkIndex] + chunkSizes[next] <= CHUNK_SIZE / 2) {
+            System.arraycopy(chunks.get(next), 0, ownChunk(chunkIndex), chunkSizes[chunkIndex], chunkSizes[next]);
+            chunkSizes[chunkIndex] += chunkSizes[next];
+            chunkSizes[next] = 0;
+            removeChunk(next);
+        }
+    }
+
+    private void removeChunk(int chunkIndex) {
+        chunks.remove(chunkIndex);
+        int[] sizes = new int[chunkSizes.length - 1];
+        System.arraycopy(chunkSizes, 0, sizes, 0, chunkIndex);
+        System.arraycopy(chunkSizes, chunkIndex + 1, sizes, chunkIndex, sizes.length - chunkIndex);
+        chunkSizes = sizes;
+        boolean[] owned = new boolean[ownedChunks.length - 1];
+        System.arraycopy(ownedChunks, 0, owned, 0, chunkIndex);
+        System.arraycopy(ownedChunks, chunkIndex + 1, owned, chunkIndex, owned.length - chunkIndex);
+        ownedChunks = owned;
+        rebuildTree();
+    }
+
+    /**
+     * Starts a change of the list. After a snapshot, the list of chunks and the sizes are
+     * copied once, so the snapshot keeps the old ones.
+     */
+    private void prepareChange() {
+        version++;
+        if (ownedChunks == null) {
+            chunks = new ArrayList<>(chunks);
+            chunkSizes = chunkSizes.clone();
+            tree = tree.clone();
+            ownedChunks = new boolean[chunks.size()];
+        }
+    }
+
+    /**
+     * Gets the chunk to be changed in place, copying it first if it is shared with a snapshot.
+     */
+    private CharSequence[] ownChunk(int chunkIndex) {
+        if (!ownedChunks[chunkIndex]) {
+            chunks.set(chunkIndex, chunks.get(chunkIndex).clone());
+            ownedChunks[chunkIndex] = true;
+        }
+        return chunks.get(chunkIndex);
+    }
+
+    private void rebuildTree() {
+        tree = new int[chunkSizes.length + 1];
+        for (int i = 1; i < tree.length; i++) {
+            tree[i] += chunkSizes[i - 1];
+            int parent = i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    private void updateTree(int chunkIndex, int delta) {
+        for (int i = chunkIndex + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Gets the number of paragraphs in the chunks before the given chunk.
+     */
+    private static int offsetOf(int[] tree, int chunkIndex) {
+        int offset = 0;
+        for (int i = chunkIndex; i > 0; i -= i & -i) {
+            offset += tree[i];
+        }
+        return offset;
+    }
+
+    /**
+     * Finds the chunk containing the paragraph by descending the Fenwick tree.
+     */
+    private static int findChunk(int[] tree, int index) {
+        int chunkIndex = 0;
+        int remaining = index;
+        for (int step = Integer.highestOneBit(Math.max(1, tree.length - 1)); step > 0; step >>= 1) {
+            int next = chunkIndex + step;
+            if (next < tree.length && tree[next] <= remaining) {
+                chunkIndex = next;
+                remaining -= tree[next];
+            }
+        }
+        return chunkIndex;
+    }
+
+    private void checkIndex(int index, int limit) {
+        if (index < 0 || index >= limit) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    /**
+     * Immutable version of a ParagraphList. It shares the chunks with the list and with the
+     * other snapshots, so publishing it does not copy any paragraph.
+     */
+    static final class Snapshot extends AbstractList<String> implements RandomAccess {
+
+        private final List<CharSequence[]> chunks;
+        private final int[] chunkSizes;
+        private final int[] tree;
+        private final int size;
+        private final long version;
+
+        private Snapshot(List<CharSequence[]> chunks, int[] chunkSizes, int[] tree, int size, long version) {
+            this.chunks = chunks;
+            this.chunkSizes = chunkSizes;
+            this.tree = tree;
+            this.size = size;
+            this.version = version;
+        }
+
+        @Override
+        public String get(int index) {
+            return getSource(index).toString();
+        }
+
+        /**
+         * Gets the paragraph as it is stored, without converting it to a String.
+         *
+         * @param index position of the paragraph, starting at 0
+         * @return returns the stored paragraph
+         */
+        CharSequence getSource(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            int chunkIndex = findChunk(tree, index);
+            return chunks.get(chunkIndex)[index - offsetOf(tree, chunkIndex)];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Gets the version of the list this snapshot has been taken from.
+         *
+         * @return returns the version
+         */
+        long getVersion() {
+            return version;
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return new Iterator<String>() {
+
+                private int chunkIndex;
+                private int position;
+                private int returned;
+
+                @Override
+                public boolean hasNext() {
+                    return returned < size;
+                }
+
+                @Override
+                public String next() {
+                    if (returned >= size) {
+                        throw new NoSuchElementException();
+                    }
+                    while (position == chunkSizes[chunkIndex]) {
+                        chunkIndex++;
+                        position = 0;
+                    }
+                    returned++;
+                    return chunks.get(chunkIndex)[position++].toString();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.NotFalse.app;
+
+import java.util.Arrays;
+
+/**
+ * Paragraph which can be edited without copying its content. The original content is never
+ * changed, inserted text is appended to an add buffer, and the paragraph is described by a
+ * list of pieces, each referring to a range of one of the two buffers. An edit only splits and
+ * moves pieces, so it costs O(pieces) instead of O(length). The paragraph is only converted to
+ * a String when it is read as a String, and the String is kept until the next edit.
+ * A table which is part of a snapshot is not edited any more, the editor edits a copy, so the
+ * published tables can be read by several threads.
+ */
+final class PieceTable implements CharSequence {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final String original;
+    // shared with the copies of the table, text is only ever appended to it
+    private final AddBuffer buffer;
+    // array of the buffer which contains all text the pieces refer to
+    private char[] added;
+    private boolean[] isAdded;
+    private int[] starts;
+    private int[] lengths;
+    private int pieceCount;
+    private int length;
+    private String content;
+    // piece containing the last character read by charAt in the upper 32 bits and its offset in
+    // the paragraph in the lower ones, in one field so readers on other threads see a valid pair
+    private volatile long cursor;
+
+    /**
+     * Constructor for a PieceTable containing the given paragraph.
+     *
+     * @param original content of the paragraph
+     */
+    PieceTable(String original) {
+        this(original, new AddBuffer(), INITIAL_CAPACITY);
+        if (!original.isEmpty()) {
+            starts[0] = 0;
+            lengths[0] = original.length();
+            pieceCount = 1;
+        }
+        length = original.length();
+        content = original;
+    }
+
+    private PieceTable(String original, AddBuffer buffer, int capacity) {
+        this.original = original;
+        this.buffer = buffer;
+        added = buffer.chars;
+        isAdded = new boolean[capacity];
+        starts = new int[capacity];
+        lengths = new int[capacity];
+    }
+
+    /**
+     * Creates a copy of the paragraph. The copy shares the buffers with this table and only
+     * copies the pieces, later edits of either table do not change the other one.
+     *
+     * @return returns the copy
+     */
+    PieceTable copy() {
+        PieceTable copy = new PieceTable(original, buffer, Math.max(INITIAL_CAPACITY, pieceCount));
+        copy.added = added;
+        System.arraycopy(isAdded, 0, copy.isAdded, 0, pieceCount);
+        System.arraycopy(starts, 0, copy.starts, 0, pieceCount);
+        System.arraycopy(lengths, 0, copy.lengths, 0, pieceCount);
+        copy.pieceCount = pieceCount;
+        copy.length = length;
+        copy.content = content;
+        return copy;
+    }
+
+    /**
+     * Replaces a range of the paragraph with the given text.
+     *
+     * @param start       index of the first replaced character
+     * @param end         index after the last replaced character
+     * @param replacement text to be inserted instead of the range, may be empty
+     * @throws IndexOutOfBoundsException if the range is not part of the paragraph
+     */
+    void replace(int start, int end, CharSequence replacement) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("Range: " + start + " - " + end + ", Length: " + length);
+        }
+        int first = splitAt(start);
+        int last = splitAt(end);
+        int replacementLength = replacement.length();
+        boolean isAppended = replacementLength > 0 && first > 0 && isAdded[first - 1]
+                && starts[first - 1] + lengths[first - 1] == buffer.length;
+        int inserted = replacementLength > 0 && !isAppended ? 1 : 0;
+        ensureCapacity(pieceCount - (last - first) + inserted);
+        int moved = pieceCount - last;
+        System.arraycopy(isAdded, last, isAdded, first + inserted, moved);
+        System.arraycopy(starts, last, starts, first + inserted, moved);
+        System.arraycopy(lengths, last, lengths, first + inserted, moved);
+        pieceCount += inserted - (last - first);
+        if (isAppended) {
+            // text typed behind the last insertion extends its piece
+            lengths[first - 1] += replacementLength;
+        } else if (inserted > 0) {
+            isAdded[first] = true;
+            starts[first] = buffer.length;
+            lengths[first] = replacementLength;
+        }
+        added = buffer.append(replacement);
+        length += replacementLength - (end - start);
+        content = null;
+        cursor = 0;
+    }
+
+    /**
+     * Gets the number of pieces. It is used for testing.
+     *
+     * @return returns the number of pieces
+     */
+    int getPieceCount() {
+        return pieceCount;
+    }
+
+    /**
+     * Checks if the paragraph has already been converted to a String since the last edit.
+     *
+     * @return returns true if toString does not copy the paragraph
+     */
+    boolean isMaterialized() {
+        return content != null;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Gets a character of the paragraph. Characters read one after another, or close to the
+     * last one, are found without searching the pieces from the start.
+     */
+    @Override
+    public char charAt(int index) {
+        if (content != null) {
+            return content.charAt(index);
+        }
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + length);
+        }
+        long position = cursor;
+        int piece = (int) (position >>> 32);
+        int pieceStart = (int) position;
+        while (index < pieceStart) {
+            piece--;
+            pieceStart -= lengths[piece];
+        }
+        while (index >= pieceStart + lengths[piece]) {
+            pieceStart += lengths[piece];
+            piece++;
+        }
+        if (pieceStart != (int) position) {
+            cursor = ((long) piece << 32) | pieceStart;
+        }
+        int offset = starts[piece] + index - pieceStart;
+        return isAdded[piece] ? added[offset] : original.charAt(offset);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("Range: " + start + " - " + end + ", Length: " + length);
+        }
+        if (content != null) {
+            return content.substring(start, end);
+        }
+        StringBuilder builder = new StringBuilder(end - start);
+        appendRange(builder, start, end);
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+        if (content == null) {
+            StringBuilder builder = new StringBuilder(length);
+            appendRange(builder, 0, length);
+            content = builder.toString();
+        }
+        return content;
+    }
+
+    private void appendRange(StringBuilder builder, int start, int end) {
+        int pieceStart = 0;
+        for (int i = 0; i < pieceCount && pieceStart < end; i++) {
+            int pieceEnd = pieceStart + lengths[i];
+            if (pieceEnd > start) {
+                int from = starts[i] + Math.max(start, pieceStart) - pieceStart;
+                int to = starts[i] + Math.min(end, pieceEnd) - pieceStart;
+                if (isAdded[i]) {
+                    builder.append(added, from, to - from);
+                } else {
+                    builder.append(original, from, to);
+                }
+            }
+            pieceStart = pieceEnd;
+        }
+    }
+
+    /**
+     * Makes sure a piece starts at the given offset by splitting the piece containing it.
+     *
+     * @param offset index in the paragraph
+     * @return returns the index of the piece starting at the offset, or the number of pieces
+     *         if the offset is the end of the paragraph
+     */
+    private int splitAt(int offset) {
+        int pieceStart = 0;
+        for (int i = 0; i < pieceCount; i++) {
+            if (offset == pieceStart) {
+                return i;
+            }
+            int pieceEnd = pieceStart + lengths[i];
+            if (offset < pieceEnd) {
+                ensureCapacity(pieceCount + 1);
+                System.arraycopy(isAdded, i + 1, isAdded, i + 2, pieceCount - i - 1);
+                System.arraycopy(starts, i + 1, starts, i + 2, pieceCount - i - 1);
+                System.arraycopy(lengths, i + 1, lengths, i + 2, pieceCount - i - 1);
+                isAdded[i + 1] = isAdded[i];
+                starts[i + 1] = starts[i] + offset - pieceStart;
+                lengths[i + 1] = pieceEnd - offset;
+                lengths[i] = offset - pieceStart;
+                pieceCount++;
+                return i + 1;
+            }
+            pieceStart = pieceEnd;
+        }
+        return pieceCount;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > starts.length) {
+            int newCapacity = Math.max(capacity, starts.length * 2);
+            isAdded = Arrays.copyOf(isAdded, newCapacity);
+            starts = Arrays.copyOf(starts, newCapacity);
+            lengths = Arrays.copyOf(lengths, newCapacity);
+        }
+    }
+
+    /**
+     * Buffer for the inserted text of a table and its copies. Text is only appended, and a
+     * full array is replaced by a larger copy, so the ranges a table refers to never change.
+     */
+    private static final class AddBuffer {
+
+        private char[] chars = new char[INITIAL_CAPACITY];
+        private int length;
+
+        /**
+         * Appends the text.
+         *
+         * @param text text to be appended
+         * @return returns the array containing the text and everything appended before
+         */
+        char[] append(CharSequence text) {
+            int textLength = text.length();
+            if (length + textLength > chars.length) {
+                chars = Arrays.copyOf(chars, Math.max(chars.length * 2, length + textLength));
+            }
+            for (int i = 0; i < textLength; i++) {
+                chars[length + i] = text.charAt(i);
+            }
+            length += textLength;
+            return chars;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.NotFalse.app;
+
+import java.util.Arrays;
+
+/**
+ * Sorted list of the occurrences of a word. Every occurrence is stored as the paragraph,
+ * by its number or its stable id, and the position of the word within the paragraph, in two
+ * parallel int arrays sorted by paragraph and position.
+ */
+final class PositionList {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private int[] paragraphNumbers;
+    private int[] positions;
+    private int size;
+
+    /**
+     * Constructor for PositionList.
+     */
+    PositionList() {
+        paragraphNumbers = new int[INITIAL_CAPACITY];
+        positions = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Adds an occurrence at its sorted position. Adding occurrences in ascending order only
+     * appends them.
+     *
+     * @param paragraphNumber paragraph containing the word
+     * @param position        position of the word in the paragraph, counted in words
+     */
+    void add(int paragraphNumber, int position) {
+        int index = size;
+        if (size > 0 && compare(size - 1, paragraphNumber, position) > 0) {
+            index = lowerBound(paragraphNumber, position);
+        }
+        if (size == paragraphNumbers.length) {
+            paragraphNumbers = Arrays.copyOf(paragraphNumbers, size * 2);
+            positions = Arrays.copyOf(positions, size * 2);
+        }
+        System.arraycopy(paragraphNumbers, index, paragraphNumbers, index + 1, size - index);
+        System.arraycopy(positions, index, positions, index + 1, size - index);
+        paragraphNumbers[index] = paragraphNumber;
+        positions[index] = position;
+        size++;
+    }
+
+    /**
+     * Removes all occurrences in the paragraph.
+     *
+     * @param paragraphNumber paragraph whose occurrences are removed
+     */
+    void removeParagraph(int paragraphNumber) {
+        int start = lowerBound(paragraphNumber, Integer.MIN_VALUE);
+        int end = start;
+        while (end < size && paragraphNumbers[end] == paragraphNumber) {
+            end++;
+        }
+        System.arraycopy(paragraphNumbers, end, paragraphNumbers, start, size - end);
+        System.arraycopy(positions, end, positions, start, size - end);
+        size -= end - start;
+    }
+
+    /**
+     * Gets the paragraph number of the occurrence.
+     *
+     * @param index position in the list
+     * @return returns the paragraph number
+     */
+    int getParagraphNumber(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return paragraphNumbers[index];
+    }
+
+    /**
+     * Gets the position of the word in its paragraph.
+     *
+     * @param index position in the list
+     * @return returns the position, counted in words
+     */
+    int getPosition(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return positions[index];
+    }
+
+    /**
+     * Gets the number of occurrences.
+     *
+     * @return returns the size of the list
+     */
+    int size() {
+        return size;
+    }
+
+    private int lowerBound(int paragraphNumber, int position) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compare(middle, paragraphNumber, position) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int compare(int index, int paragraphNumber, int position) {
+        int result = Integer.compare(paragraphNumbers[index], paragraphNumber);
+        return result != 0 ? result : Integer.compare(positions[index], position);
+    }
+}
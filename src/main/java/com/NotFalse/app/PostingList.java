@@ -0,0 +1,143 @@
+package com.NotFalse.app;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sorted list of the paragraphs which contain a word, stored by their numbers or by their
+ * stable ids. The numbers are stored in an int array and every number is contained only once.
+ */
+final class PostingList {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private int[] paragraphNumbers;
+    private int size;
+
+    /**
+     * Constructor for PostingList.
+     */
+    PostingList() {
+        paragraphNumbers = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Adds the paragraph number at its sorted position, if it is not contained yet.
+     * Adding numbers in ascending order only appends them.
+     *
+     * @param paragraphNumber paragraph number to be added
+     * @return returns true if the number has been added
+     */
+    boolean add(int paragraphNumber) {
+        if (size > 0 && paragraphNumbers[size - 1] >= paragraphNumber) {
+            int position = Arrays.binarySearch(paragraphNumbers, 0, size, paragraphNumber);
+            if (position >= 0) {
+                return false;
+            }
+            insert(-position - 1, paragraphNumber);
+        } else {
+            insert(size, paragraphNumber);
+        }
+        return true;
+    }
+
+    /**
+     * Adds all paragraph numbers of the other list. If they are all greater than the
+     * numbers of this list, they are appended at once.
+     *
+     * @param other list whose paragraph numbers are added
+     */
+    void addAll(PostingList other) {
+        if (other.size == 0) {
+            return;
+        }
+        if (size == 0 || paragraphNumbers[size - 1] < other.paragraphNumbers[0]) {
+            if (size + other.size > paragraphNumbers.length) {
+                paragraphNumbers = Arrays.copyOf(paragraphNumbers, Math.max(size * 2, size + other.size));
+            }
+            System.arraycopy(other.paragraphNumbers, 0, paragraphNumbers, size, other.size);
+            size += other.size;
+        } else {
+            for (int i = 0; i < other.size; i++) {
+                add(other.paragraphNumbers[i]);
+            }
+        }
+    }
+
+    /**
+     * Removes the paragraph number.
+     *
+     * @param paragraphNumber paragraph number to be removed
+     * @return returns true if the number has been contained
+     */
+    boolean remove(int paragraphNumber) {
+        int position = Arrays.binarySearch(paragraphNumbers, 0, size, paragraphNumber);
+        if (position < 0) {
+            return false;
+        }
+        System.arraycopy(paragraphNumbers, position + 1, paragraphNumbers, position, size - position - 1);
+        size--;
+        return true;
+    }
+
+    /**
+     * Checks if the paragraph number is contained.
+     *
+     * @param paragraphNumber paragraph number to be searched
+     * @return returns true if the number is contained
+     */
+    boolean contains(int paragraphNumber) {
+        return Arrays.binarySearch(paragraphNumbers, 0, size, paragraphNumber) >= 0;
+    }
+
+    /**
+     * Gets the paragraph number at the given position.
+     *
+     * @param index position in the list
+     * @return returns the paragraph number
+     */
+    int get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return paragraphNumbers[index];
+    }
+
+    /**
+     * Gets the number of paragraphs in the list.
+     *
+     * @return returns the size of the list
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns a read-only view of the list, which reflects later changes.
+     *
+     * @return returns the paragraph numbers as List
+     */
+    List<Integer> asList() {
+        return new AbstractList<Integer>() {
+            @Override
+            public Integer get(int index) {
+                return PostingList.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private void insert(int position, int paragraphNumber) {
+        if (size == paragraphNumbers.length) {
+            paragraphNumbers = Arrays.copyOf(paragraphNumbers, size * 2);
+        }
+        System.arraycopy(paragraphNumbers, position, paragraphNumbers, position + 1, size - position);
+        paragraphNumbers[position] = paragraphNumber;
+        size++;
+    }
+}
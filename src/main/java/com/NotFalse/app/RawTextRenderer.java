@@ -0,0 +1,168 @@
+package com.NotFalse.app;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Renders the text in the raw format, where every paragraph is preceded by its number.
+ * The content of every paragraph is cached as a String under its stable id, and the numbers
+ * are only added when the text is rendered. Inserting or removing a paragraph therefore costs
+ * O(log n) and does not renumber the cached paragraphs after it. After an edit only the changed
+ * paragraphs are read from the text again.
+ */
+final class RawTextRenderer {
+
+    private ParagraphIds paragraphIds;
+    // content of the paragraphs by id, null marks a paragraph which has to be read again
+    private String[] paragraphs;
+    private String renderedText;
+
+    /**
+     * Constructor for RawTextRenderer.
+     */
+    RawTextRenderer() {
+        reset(0);
+    }
+
+    /**
+     * Marks all paragraphs to be read again, e.g. after the whole text has been replaced.
+     *
+     * @param paragraphCount number of paragraphs in the new text
+     */
+    void reset(int paragraphCount) {
+        paragraphIds = new ParagraphIds(paragraphCount);
+        paragraphs = new String[Math.max(16, paragraphCount)];
+        renderedText = null;
+    }
+
+    /**
+     * Registers a paragraph which has been inserted at the given index.
+     *
+     * @param index position of the new paragraph, starting at 0
+     */
+    void paragraphInserted(int index) {
+        int id = paragraphIds.insert(index);
+        if (id >= paragraphs.length) {
+            paragraphs = Arrays.copyOf(paragraphs, paragraphs.length * 2);
+        }
+        paragraphs[id] = null;
+        renderedText = null;
+    }
+
+    /**
+     * Registers a paragraph which has been removed at the given index.
+     *
+     * @param index position of the removed paragraph, starting at 0
+     */
+    void paragraphRemoved(int index) {
+        paragraphs[paragraphIds.remove(index)] = null;
+        renderedText = null;
+    }
+
+    /**
+     * Registers a paragraph whose content has been changed.
+     *
+     * @param index position of the changed paragraph, starting at 0
+     */
+    void paragraphChanged(int index) {
+        paragraphs[paragraphIds.getId(index)] = null;
+        renderedText = null;
+    }
+
+    /**
+     * Renders the text, reusing the cached content of all unchanged paragraphs.
+     *
+     * @param text paragraphs of the text
+     * @return returns the rendered text
+     */
+    String render(List<String> text) {
+        if (renderedText == null) {
+            StringBuilder builder = new StringBuilder();
+            try {
+                appendLines(text, builder);
+            } catch (IOException e) {
+                // a StringBuilder does not throw
+                throw new IllegalStateException(e);
+            }
+            renderedText = builder.toString();
+        }
+        return renderedText;
+    }
+
+    /**
+     * Writes the rendered text line by line to the output.
+     *
+     * @param text   paragraphs of the text
+     * @param output destination of the rendered text
+     * @throws IOException if the output cannot be written
+     */
+    void render(List<String> text, Appendable output) throws IOException {
+        if (renderedText != null) {
+            output.append(renderedText);
+            return;
+        }
+        appendLines(text, output);
+    }
+
+    /**
+     * Writes the lines of a range of paragraphs to the output. Only the paragraphs of the range
+     * are read, and the paragraphs which are not cached yet are not cached by this method either,
+     * so a text stored outside of the heap is not copied back onto the heap by printing it.
+     *
+     * @param text          paragraphs of the text
+     * @param fromParagraph index of the first paragraph, starting at 0
+     * @param toParagraph   index of the last paragraph, inclusive
+     * @param output        destination of the rendered lines
+     * @throws IOException if the output cannot be written
+     */
+    void render(List<String> text, int fromParagraph, int toParagraph, Appendable output) throws IOException {
+        boolean isCached = paragraphIds.size() == text.size();
+        for (int i = fromParagraph; i <= toParagraph; i++) {
+            String paragraph = isCached ? paragraphs[paragraphIds.getId(i)] : null;
+            appendLine(i, paragraph == null ? text.get(i) : paragraph, output);
+        }
+    }
+
+    /**
+     * Counts the paragraphs whose content is cached.
+     *
+     * @return returns the number of cached paragraphs
+     */
+    int getCachedParagraphCount() {
+        int count = 0;
+        for (int id : paragraphIds.toArray()) {
+            if (paragraphs[id] != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes the lines of all paragraphs, reading only the paragraphs which are not cached.
+     */
+    private void appendLines(List<String> text, Appendable output) throws IOException {
+        if (paragraphIds.size() != text.size()) {
+            // the text has been changed without notifying the renderer
+            reset(text.size());
+        }
+        int[] ids = paragraphIds.toArray();
+        for (int i = 0; i < ids.length; i++) {
+            appendLine(i, getParagraph(text, i, ids[i]), output);
+        }
+    }
+
+    private String getParagraph(List<String> text, int index, int id) {
+        String paragraph = paragraphs[id];
+        if (paragraph == null) {
+            paragraph = text.get(index);
+            paragraphs[id] = paragraph;
+        }
+        return paragraph;
+    }
+
+    private static void appendLine(int index, String paragraph, Appendable output) throws IOException {
+        output.append('<').append(String.valueOf(index + 1)).append(">: ").append(paragraph).append('\n');
+    }
+}
@@ -0,0 +1,266 @@
+package com.NotFalse.app;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Positional inverted index of the text. For every word it stores the paragraphs and the
+ * positions within the paragraphs where the word occurs, so searches only read the lists of
+ * the searched words and do not depend on the size of the text.
+ * Words are found like in the glossary: sequences of letters, compared without regard to case.
+ * The index is updated together with the glossary when paragraphs are inserted, removed
+ * or replaced. Like the glossary, it stores the stable ids of the paragraphs, so an insert or
+ * a removal does not renumber the lists of all words. All lists are sorted by the ids, so they
+ * can still be merged, and only the paragraphs found are converted to their numbers.
+ */
+final class SearchIndex {
+
+    private final WordFrequencyTable words = new WordFrequencyTable();
+    private PositionList[] wordPositions = new PositionList[64];
+    private ParagraphIds paragraphIds = new ParagraphIds(0);
+
+    /**
+     * Creates the index of the text.
+     *
+     * @param text paragraphs to be indexed
+     * @return returns the new index
+     */
+    static SearchIndex build(List<String> text) {
+        SearchIndex index = new SearchIndex();
+        index.paragraphIds = new ParagraphIds(text.size());
+        for (int i = 0; i < text.size(); i++) {
+            index.addWords(i, text.get(i));
+        }
+        return index;
+    }
+
+    /**
+     * Updates the index after a paragraph has been inserted.
+     *
+     * @param index     position of the new paragraph, starting at 0
+     * @param paragraph the new paragraph
+     */
+    void insertParagraph(int index, CharSequence paragraph) {
+        addWords(paragraphIds.insert(index), paragraph);
+    }
+
+    /**
+     * Updates the index after a paragraph has been removed.
+     *
+     * @param index     position of the removed paragraph, starting at 0
+     * @param paragraph the removed paragraph
+     */
+    void removeParagraph(int index, CharSequence paragraph) {
+        removeWords(paragraphIds.getId(index), paragraph);
+        paragraphIds.remove(index);
+    }
+
+    /**
+     * Updates the index after a paragraph has been replaced.
+     *
+     * @param index        position of the paragraph, starting at 0
+     * @param oldParagraph the replaced paragraph
+     * @param newParagraph the new paragraph
+     */
+    void replaceParagraph(int index, CharSequence oldParagraph, CharSequence newParagraph) {
+        int paragraphId = paragraphIds.getId(index);
+        removeWords(paragraphId, oldParagraph);
+        addWords(paragraphId, newParagraph);
+    }
+
+    /**
+     * Finds the paragraphs matching the query. A query consists of words and phrases in
+     * double quotes, all of which have to occur in a paragraph. The word AND between them
+     * is optional. A phrase only matches if its words occur one after another.
+     *
+     * @param query words and phrases to be searched
+     * @return returns the sorted paragraph numbers, starting at 1
+     */
+    List<Integer> search(String query) {
+        List<int[]> clauseResults = new ArrayList<>();
+        for (String clause : parseQuery(query)) {
+            int[] paragraphs = searchPhrase(clause);
+            if (paragraphs == null) {
+                continue;
+            }
+            if (paragraphs.length == 0) {
+                return new ArrayList<>();
+            }
+            clauseResults.add(paragraphs);
+        }
+        if (clauseResults.isEmpty()) {
+            return new ArrayList<>();
+        }
+        // intersecting the shortest lists first keeps the intermediate results small
+        clauseResults.sort(Comparator.comparingInt(paragraphs -> paragraphs.length));
+        int[] result = clauseResults.get(0);
+        for (int i = 1; i < clauseResults.size() && result.length > 0; i++) {
+            result = intersect(result, clauseResults.get(i));
+        }
+        int[] indexes = new int[result.length];
+        for (int i = 0; i < result.length; i++) {
+            indexes[i] = paragraphIds.getIndex(result[i]);
+        }
+        Arrays.sort(indexes);
+        List<Integer> paragraphNumbers = new ArrayList<>(result.length);
+        for (int index : indexes) {
+            paragraphNumbers.add(index + 1);
+        }
+        return paragraphNumbers;
+    }
+
+    /**
+     * Splits the query into words and quoted phrases.
+     *
+     * @param query the query typed by the user
+     * @return returns the words and phrases
+     */
+    static List<String> parseQuery(String query) {
+        List<String> clauses = new ArrayList<>();
+        int position = 0;
+        int length = query.length();
+        while (position < length) {
+            char character = query.charAt(position);
+            if (Character.isWhitespace(character)) {
+                position++;
+            } else if (character == '"') {
+                int end = query.indexOf('"', position + 1);
+                if (end < 0) {
+                    end = length;
+                }
+                clauses.add(query.substring(position + 1, end));
+                position = end + 1;
+            } else {
+                int end = position;
+                while (end < length && !Character.isWhitespace(query.charAt(end)) && query.charAt(end) != '"') {
+                    end++;
+                }
+                String word = query.substring(position, end);
+                if (!word.equals("AND")) {
+                    clauses.add(word);
+                }
+                position = end;
+            }
+        }
+        return clauses;
+    }
+
+    /**
+     * Finds the paragraphs containing the words of the phrase one after another.
+     *
+     * @param phrase one or more words
+     * @return returns the sorted paragraph ids, or null if the phrase contains no word
+     */
+    private int[] searchPhrase(String phrase) {
+        List<PositionList> lists = new ArrayList<>();
+        boolean[] isMissing = new boolean[1];
+        WordTokenizer.tokenize(phrase, (text, start, end) -> {
+            int id = words.find(text, start, end);
+            if (id < 0 || wordPositions[id] == null || wordPositions[id].size() == 0) {
+                isMissing[0] = true;
+            } else {
+                lists.add(wordPositions[id]);
+            }
+        });
+        if (isMissing[0]) {
+            return new int[0];
+        }
+        if (lists.isEmpty()) {
+            return null;
+        }
+        // occurrences of the phrase, stored as paragraph and position of its first word
+        PositionList first = lists.get(0);
+        int count = first.size();
+        int[] paragraphs = new int[count];
+        int[] positions = new int[count];
+        for (int i = 0; i < count; i++) {
+            paragraphs[i] = first.getParagraphNumber(i);
+            positions[i] = first.getPosition(i);
+        }
+        for (int offset = 1; offset < lists.size() && count > 0; offset++) {
+            count = retainFollowedBy(paragraphs, positions, count, lists.get(offset), offset);
+        }
+        return distinct(paragraphs, count);
+    }
+
+    /**
+     * Keeps the occurrences which are followed by the word at the given offset. Both lists are
+     * sorted in the same order, so they are merged in one pass.
+     *
+     * @return returns the number of remaining occurrences
+     */
+    private static int retainFollowedBy(int[] paragraphs, int[] positions, int count, PositionList next, int offset) {
+        int retained = 0;
+        int j = 0;
+        for (int i = 0; i < count; i++) {
+            int paragraph = paragraphs[i];
+            int position = positions[i] + offset;
+            while (j < next.size() && (next.getParagraphNumber(j) < paragraph
+                    || (next.getParagraphNumber(j) == paragraph && next.getPosition(j) < position))) {
+                j++;
+            }
+            if (j < next.size() && next.getParagraphNumber(j) == paragraph && next.getPosition(j) == position) {
+                paragraphs[retained] = paragraph;
+                positions[retained] = positions[i];
+                retained++;
+            }
+        }
+        return retained;
+    }
+
+    private static int[] distinct(int[] paragraphs, int count) {
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            if (size == 0 || paragraphs[size - 1] != paragraphs[i]) {
+                paragraphs[size++] = paragraphs[i];
+            }
+        }
+        return Arrays.copyOf(paragraphs, size);
+    }
+
+    private static int[] intersect(int[] first, int[] second) {
+        int[] result = new int[Math.min(first.length, second.length)];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < first.length && j < second.length) {
+            if (first[i] < second[j]) {
+                i++;
+            } else if (first[i] > second[j]) {
+                j++;
+            } else {
+                result[size++] = first[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private void addWords(int paragraphId, CharSequence paragraph) {
+        int[] position = new int[1];
+        WordTokenizer.tokenize(paragraph, (text, start, end) -> {
+            int id = words.add(text, start, end, 1);
+            if (id >= wordPositions.length) {
+                wordPositions = Arrays.copyOf(wordPositions, Math.max(wordPositions.length * 2, id + 1));
+            }
+            if (wordPositions[id] == null) {
+                wordPositions[id] = new PositionList();
+            }
+            wordPositions[id].add(paragraphId, position[0]++);
+        });
+    }
+
+    private void removeWords(int paragraphId, CharSequence paragraph) {
+        WordTokenizer.tokenize(paragraph, (text, start, end) -> {
+            int id = words.find(text, start, end);
+            if (id >= 0) {
+                words.addFrequency(id, -1);
+                // removing the paragraph a second time for a repeated word does nothing
+                wordPositions[id].removeParagraph(paragraphId);
+            }
+        });
+    }
+}
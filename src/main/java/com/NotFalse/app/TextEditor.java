@@ -1,33 +1,130 @@
 package com.NotFalse.app;
 
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.NoSuchElementException;
+
 /**
  * Main class for the TextEditor application.
+ * Started with "--batch scriptFile", the commands and their texts are read from the script
+ * without showing prompts, and all output is written through one buffered stream.
+ * Started with "--server [port]", it serves many users over a local socket, see EditorServer.
  */
 public class TextEditor {
 
+    private static final int BATCH_BUFFER_SIZE = 1 << 16;
+
     private TextManager textManager;
 
     /**
-     * Constructor for the TextEditor class.
+     * Constructor for the TextEditor class. The output is written by a background thread,
+     * so the editor does not wait for the console.
      */
     public TextEditor() {
-        textManager = new TextManager();
+        textManager = new TextManager(new InputReceiver(),
+                new OutputManager(System.out, System.err, true, true));
+    }
+
+    /**
+     * Constructor for a TextEditor using the given TextManager.
+     *
+     * @param textManager the TextManager running the commands
+     */
+    TextEditor(TextManager textManager) {
+        this.textManager = textManager;
     }
 
     /**
      * Main method for the TextEditor application.
-     * 
+     *
      * @param args
      */
     public static void main(String[] args) {
+        if (args.length == 2 && (args[0].equals("--batch") || args[0].equals("-b"))) {
+            System.exit(runBatch(args[1]));
+        }
+        if (args.length >= 1 && args.length <= 2 && (args[0].equals("--server") || args[0].equals("-s"))) {
+            System.exit(runServer(args.length == 2 ? args[1] : String.valueOf(EditorServer.DEFAULT_PORT)));
+        }
         TextEditor a = new TextEditor();
         a.runTextEditor();
     }
 
+    /**
+     * Runs the commands of the script file without interaction.
+     *
+     * @param scriptFile file containing the commands and their texts
+     * @return the exit code, 0 if all commands succeeded
+     */
+    static int runBatch(String scriptFile) {
+        try (InputStream script = Files.newInputStream(Paths.get(scriptFile))) {
+            PrintStream out = new PrintStream(new BufferedOutputStream(
+                    new FileOutputStream(FileDescriptor.out), BATCH_BUFFER_SIZE), false);
+            return runBatch(script, out);
+        } catch (IOException e) {
+            System.err.println("The script could not be read: " + scriptFile);
+            return 2;
+        }
+    }
+
+    /**
+     * Runs the commands read from the script and writes all output to the given stream.
+     *
+     * @param script source of the commands and their texts
+     * @param out    destination of all output
+     * @return the exit code, 0 if all commands succeeded
+     */
+    static int runBatch(InputStream script, PrintStream out) {
+        OutputManager output = new OutputManager(out, out, false, true);
+        TextEditor editor = new TextEditor(new TextManager(new InputReceiver(script), output));
+        try {
+            editor.runTextEditor();
+        } catch (NoSuchElementException e) {
+            output.createUserErrorMessage("The script ended before the command was complete.");
+        }
+        output.close();
+        return output.getErrorCount() > 0 ? 1 : 0;
+    }
+
+    /**
+     * Serves editing sessions on the port until the JVM is stopped.
+     *
+     * @param port port to listen on
+     * @return the exit code, 2 if the server could not be started
+     */
+    static int runServer(String port) {
+        EditorServer server;
+        try {
+            server = new EditorServer(Integer.parseInt(port));
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid port: " + port);
+            return 2;
+        } catch (IOException e) {
+            System.err.println("The server could not be started on port " + port + ": " + e.getMessage());
+            return 2;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+            } catch (IOException e) {
+                System.err.println("The server could not be closed: " + e.getMessage());
+            }
+        }));
+        System.out.println("Server listening on port " + server.getPort());
+        server.serve();
+        return 0;
+    }
+
     /**
      * Runs the TextEditor application.
      */
-    private void runTextEditor() {
+    void runTextEditor() {
         boolean isRunning;
         do {
             textManager.editText();
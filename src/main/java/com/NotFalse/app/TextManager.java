@@ -1,10 +1,15 @@
 package com.NotFalse.app;
 
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.TreeMap;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * This class is responsible for managing the text. It contains the text, the
@@ -13,6 +18,15 @@ import java.util.stream.Collectors;
  * the user.
  */
 public class TextManager {
+
+    static final String STATISTICS_PROPERTY = "texteditor.stats";
+    static final String BACKGROUND_GLOSSARY_PROPERTY = "texteditor.backgroundGlossary";
+    static final String OFF_HEAP_PROPERTY = "texteditor.offHeap";
+    static final String TOKENS_PROPERTY = "texteditor.tokens";
+    // longer paragraphs are edited as piece tables instead of being copied by every replacement
+    static final int PIECE_TABLE_MIN_LENGTH = 4096;
+    // lines of the fixed format or paragraphs of the raw format printed by "print page"
+    static final int PAGE_SIZE = 50;
     final static String DUMMYTEXT = "Lorem Ipsum is simply dummy text of the printing and typesetting industry." +
             "Lorem Ipsum has been the industry's standard dummy text ever since the 1500s, " +
             "when an unknown printer took a galley of type and scrambled it to make a type specimen book." +
@@ -24,27 +38,65 @@ public class TextManager {
 
     private OutputManager output;
     private GlossaryApp glossary;
+    // the glossary is rebuilt when it is shown the next time, if the whole text has been replaced
+    private boolean isGlossaryOutdated;
+    // built by the first search and then updated with the text, null if it has to be built
+    private SearchIndex searchIndex;
+    private RawTextRenderer rawRenderer;
+    private LayoutCache layoutCache;
     private boolean isFormatterRaw;
     private boolean isExitTriggered;
-    private List<String> text;
+    // formatting, indexing and saving read a snapshot, which does not change while the text is edited
+    private ParagraphList text;
+    private Path textFile;
     private int fixedWidth;
+    // null if the statistics are disabled, so they cost nothing
+    private CommandStatistics statistics;
+    // time the current command has waited for its texts, which is not part of its latency
+    private long inputNanos;
+    // null if the glossary is updated by the editing thread
+    private BackgroundGlossary backgroundGlossary;
+    // lines of the fixed format, built by the first ranged print of a version of the text
+    private LineIndex lineIndex;
+    // null if the paragraphs are stored on the heap
+    private OffHeapTextStore offHeapStore;
+    // null if the paragraphs are not stored as tokens
+    private Vocabulary vocabulary;
 
     /**
      * Constructor for the TextManager class. It initializes the input, output,
      * glossary, text, isExitTriggered and isFormatterRaw variables.
      */
     TextManager() {
-        input = new InputReceiver();
-        output = new OutputManager();
+        this(new InputReceiver(), new OutputManager());
+    }
+
+    /**
+     * Constructor for a TextManager which reads the commands from the given input and
+     * writes to the given output.
+     *
+     * @param input  source of the commands
+     * @param output destination of the messages and the text
+     */
+    TextManager(InputReceiver input, OutputManager output) {
+        this.input = input;
+        this.output = output;
         glossary = new GlossaryApp();
-        text = new ArrayList<>();
+        text = new ParagraphList();
         text.add("This three thrEE Threeis a new test paragraph.\n");
         text.add("Another New test paragraph.\n");
         text.add("Another weird useless nEw test paragraph");
+        isGlossaryOutdated = true;
+        rawRenderer = new RawTextRenderer();
+        rawRenderer.reset(text.size());
+        layoutCache = new LayoutCache(LayoutCache.DEFAULT_CAPACITY);
         isExitTriggered = false;
         isFormatterRaw = true;
         fixedWidth = 80;
-        formatTextRaw();
+        setStatisticsEnabled(Boolean.getBoolean(STATISTICS_PROPERTY));
+        setBackgroundGlossaryEnabled(Boolean.getBoolean(BACKGROUND_GLOSSARY_PROPERTY));
+        setOffHeapEnabled(Boolean.getBoolean(OFF_HEAP_PROPERTY));
+        setTokenStorageEnabled(Boolean.getBoolean(TOKENS_PROPERTY));
         output.createWelcomeMessage();
 
     }
@@ -54,14 +106,43 @@ public class TextManager {
      * the methods for editing the text and formatting the text.
      */
     public void editText() {
+        if (!input.hasNextLine()) {
+            // the end of the input ends the editor like the exit command
+            isExitTriggered = true;
+            output.flush();
+            return;
+        }
         String userInput[] = input.splitInput();
+        Commands command = Commands.getCommandsEnum(userInput[0]);
+        if (statistics == null) {
+            executeCommand(command, userInput);
+        } else {
+            executeMeasuredCommand(command, userInput);
+        }
+    }
+
+    /**
+     * Executes the command and records its latency and allocated memory. The time waiting for
+     * the texts the command reads is not included, so only the work of the editor is measured.
+     */
+    private void executeMeasuredCommand(Commands command, String[] userInput) {
+        long allocatedBefore = statistics.getAllocatedBytes();
+        inputNanos = 0;
+        long start = System.nanoTime();
+        executeCommand(command, userInput);
+        long nanos = System.nanoTime() - start - inputNanos;
+        long allocatedAfter = statistics.getAllocatedBytes();
+        statistics.record(command, nanos, allocatedBefore < 0 ? -1 : allocatedAfter - allocatedBefore);
+    }
 
-        switch (Commands.getCommandsEnum(userInput[0])) {
+    private void executeCommand(Commands command, String[] userInput) {
+        switch (command) {
             case DUMMY:
                 addDummyParagraph(userInput);
                 break;
             case EXIT:
                 output.createExitMessage();
+                output.flush();
                 isExitTriggered = true;
                 break;
             case ADD:
@@ -74,40 +155,88 @@ public class TextManager {
                 showGlossary();
                 break;
             case PRINT:
-                printText();
+                printText(userInput);
                 break;
             case REPLACE:
                 replaceParagraphSection(userInput);
                 break;
+            case REPLACE_ALL:
+                replaceAllWords();
+                break;
             case HELP:
                 output.createMenuOptions();
                 break;
             case FORMAT_RAW:
                 isFormatterRaw = true;
-                formatTextRaw();
+                output.createFormatMessage(true);
                 break;
             case FORMAT_FIX:
-                isFormatterRaw = false;
-                //setFixedWidth(Integer.parseInt(userInput[1]));
-                formatTextFix(fixedWidth);
+                setFormatFix(userInput);
+                break;
+            case STATS:
+                showStatistics();
+                break;
+            case SEARCH:
+                searchText(userInput);
+                break;
+            case LOAD:
+                loadText();
+                break;
+            case SAVE:
+                saveText();
                 break;
             default:
-                System.err.println("UNKOWN ERROR");
+                output.createInvalidCommandMessage();
                 break;
         }
     }
+    /**
+     * Reads a text which belongs to the current command. While the statistics are enabled,
+     * the time waiting for the text is excluded from the latency of the command.
+     *
+     * @param isFiltered true if the characters which are not allowed are removed
+     * @return returns the text
+     */
+    private String readText(boolean isFiltered) {
+        long start = statistics == null ? 0 : System.nanoTime();
+        String text = isFiltered ? input.unsplittedText() : input.unfilteredText();
+        if (statistics != null) {
+            inputNanos += System.nanoTime() - start;
+        }
+        return text;
+    }
+
+    /**
+     * Switches to the fixed format. If a width is given, it replaces the current width.
+     */
+    private void setFormatFix(String[] userInput) {
+        if (userInput.length > 1) {
+            try {
+                int width = Integer.parseInt(userInput[1]);
+                if (width < 1) {
+                    output.createFormatMessage(false);
+                    return;
+                }
+                setFixedWidth(width);
+            } catch (NumberFormatException e) {
+                output.createFormatMessage(false);
+                return;
+            }
+        }
+        isFormatterRaw = false;
+        output.createFormatMessage(true);
+    }
+
     private void addIndexCheck(String inputText[], String entredText){
         try{
+            int position = text.size();
             if (inputText.length>1) {
                 int convertToInteger = Integer.parseInt(inputText[1]);
                 if (convertToInteger-1 <= text.size() && convertToInteger-1>=0) {
-                    text.add(convertToInteger-1, entredText);
-                } else{
-                    text.add(entredText);
+                    position = convertToInteger-1;
                 }
-            }else{
-                text.add(entredText);
             }
+            insertParagraph(position, entredText);
             output.createAddMessage(true);
         }catch (Exception e){
             output.createAddMessage(false);
@@ -120,8 +249,8 @@ public class TextManager {
 
     private void addNewParagraph(String []inputText) {
 
-            System.out.println("Text: ");
-            String entredText = input.unsplittedText();
+            output.createPrompt("Text: ");
+            String entredText = readText(true);
             /*if (inputText.length>1) {
                 int convertToInteger = Integer.parseInt(inputText[1]);
                 if (convertToInteger-1 <= text.size() && convertToInteger-1>=0) {
@@ -143,7 +272,7 @@ public class TextManager {
             try {
                 int index = Integer.parseInt(userInput[1]) - 1;
                 if (index >= 0 && index < text.size()) {
-                    text.remove(index);
+                    removeParagraph(index);
                     output.createDeleteMessage(true);
                 } else {
                     output.createDeleteMessage(false);
@@ -157,6 +286,158 @@ public class TextManager {
 
     }
 
+    /**
+     * Inserts the paragraph at the given position and updates the glossary and the renderer.
+     *
+     * @param index     position of the new paragraph, starting at 0
+     * @param paragraph the new paragraph
+     */
+    private void insertParagraph(int index, String paragraph) {
+        CharSequence stored = toStoredParagraph(paragraph);
+        text.addSource(index, stored);
+        if (!isGlossaryOutdated) {
+            glossary.insertParagraph(index, toIndexedParagraph(stored, paragraph));
+        }
+        if (searchIndex != null) {
+            searchIndex.insertParagraph(index, paragraph);
+        }
+        rawRenderer.paragraphInserted(index);
+        if (backgroundGlossary != null) {
+            backgroundGlossary.insertParagraph(text.snapshot(), index, toIndexedParagraph(stored, paragraph));
+        }
+    }
+
+    /**
+     * Removes the paragraph at the given position and updates the glossary and the renderer.
+     *
+     * @param index position of the paragraph, starting at 0
+     */
+    private void removeParagraph(int index) {
+        CharSequence removedSource = text.getSource(index);
+        String removedParagraph = text.remove(index);
+        if (!isGlossaryOutdated) {
+            glossary.removeParagraph(index, toIndexedParagraph(removedSource, removedParagraph));
+        }
+        if (searchIndex != null) {
+            searchIndex.removeParagraph(index, removedParagraph);
+        }
+        rawRenderer.paragraphRemoved(index);
+        layoutCache.invalidate(toIndexedParagraph(removedSource, removedParagraph));
+        if (backgroundGlossary != null) {
+            backgroundGlossary.removeParagraph(text.snapshot(), index,
+                    toIndexedParagraph(removedSource, removedParagraph));
+        }
+    }
+
+    /**
+     * Replaces the paragraph at the given position and updates the glossary and the renderer.
+     *
+     * @param index     position of the paragraph, starting at 0
+     * @param paragraph the new content of the paragraph
+     */
+    private void replaceParagraph(int index, String paragraph) {
+        CharSequence stored = toStoredParagraph(paragraph);
+        CharSequence oldSource = text.setSource(index, stored);
+        String oldParagraph = oldSource.toString();
+        if (!isGlossaryOutdated) {
+            glossary.replaceParagraph(index, toIndexedParagraph(oldSource, oldParagraph),
+                    toIndexedParagraph(stored, paragraph));
+        }
+        if (searchIndex != null) {
+            searchIndex.replaceParagraph(index, oldParagraph, paragraph);
+        }
+        rawRenderer.paragraphChanged(index);
+        layoutCache.invalidate(toIndexedParagraph(oldSource, oldParagraph));
+        if (backgroundGlossary != null) {
+            backgroundGlossary.replaceParagraph(text.snapshot(), index, toIndexedParagraph(oldSource, oldParagraph),
+                    toIndexedParagraph(stored, paragraph));
+        }
+    }
+
+    /**
+     * Gets the paragraph in the form it is stored in the text. If both compact storages are
+     * enabled, the paragraph is stored as tokens.
+     *
+     * @param paragraph the new paragraph
+     * @return returns the paragraph as tokens or copied out of the heap if one of the compact
+     *         storages is enabled
+     */
+    private CharSequence toStoredParagraph(String paragraph) {
+        if (vocabulary != null) {
+            return TokenParagraph.encode(paragraph, vocabulary);
+        }
+        return offHeapStore == null ? paragraph : offHeapStore.store(paragraph);
+    }
+
+    /**
+     * Gets the form of the paragraph the glossary counts fastest and the layout cache knows it by.
+     *
+     * @param stored    the paragraph as it is stored in the text
+     * @param paragraph the paragraph as a String
+     * @return returns the tokens if the paragraph is stored as tokens, otherwise the String
+     */
+    private static CharSequence toIndexedParagraph(CharSequence stored, String paragraph) {
+        return stored instanceof TokenParagraph ? stored : paragraph;
+    }
+
+    /**
+     * Checks if the paragraphs are stored as tokens or outside of the heap. Such paragraphs are
+     * decoded every time they are read.
+     *
+     * @return returns true if one of the compact storages is enabled
+     */
+    private boolean isStoredCompactly() {
+        return offHeapStore != null || vocabulary != null;
+    }
+
+    /**
+     * Replaces the words in the paragraph at the given position. Long paragraphs are edited
+     * as a PieceTable, so only the pieces and the words are copied and not the whole paragraph.
+     *
+     * @param index    position of the paragraph, starting at 0
+     * @param replacer replacer containing the words and their replacements
+     * @return returns true if the paragraph has been changed
+     */
+    private boolean editParagraph(int index, WordReplacer replacer) {
+        CharSequence source = text.getSource(index);
+        // compactly stored paragraphs are stored as a whole again, so they are not edited as piece tables
+        if (isStoredCompactly() || (source.length() < PIECE_TABLE_MIN_LENGTH && !(source instanceof PieceTable))) {
+            String paragraph = source.toString();
+            String replaced = replacer.replace(paragraph);
+            if (replaced.equals(paragraph)) {
+                return false;
+            }
+            replaceParagraph(index, replaced);
+            return true;
+        }
+        // a loaded paragraph is decoded once as a whole instead of character by character by both indexes
+        CharSequence oldParagraph = source instanceof PieceTable ? source : source.toString();
+        // the layout cache only knows the paragraph if it has been converted to a String
+        String oldContent = source instanceof PieceTable table
+                ? (table.isMaterialized() ? table.toString() : null) : (String) oldParagraph;
+        // the old table may be part of a snapshot, so a copy of its pieces is edited instead
+        PieceTable paragraph = source instanceof PieceTable table ? table.copy()
+                : new PieceTable((String) oldParagraph);
+        if (!replacer.replace(paragraph)) {
+            return false;
+        }
+        text.setSource(index, paragraph);
+        if (!isGlossaryOutdated) {
+            glossary.replaceParagraph(index, oldParagraph, paragraph);
+        }
+        if (searchIndex != null) {
+            searchIndex.replaceParagraph(index, oldParagraph, paragraph);
+        }
+        rawRenderer.paragraphChanged(index);
+        if (oldContent != null) {
+            layoutCache.invalidate(oldContent);
+        }
+        if (backgroundGlossary != null) {
+            backgroundGlossary.replaceParagraph(text.snapshot(), index, oldParagraph, paragraph);
+        }
+        return true;
+    }
+
     /**
      * Formats the given ArrayList of Strings into a single String with each element
      * of the ArrayList
@@ -165,12 +446,7 @@ public class TextManager {
      * @return the formatted String
      */
     String formatTextRaw() {
-
-        String newText = "";
-        for (int paragraph = 0; paragraph < text.size(); paragraph++) {
-            newText += "<" + (paragraph + 1) + ">: " + text.get(paragraph) + "\n";
-        }
-        return newText;
+        return rawRenderer.render(text.snapshot());
     }
 
     /**
@@ -179,236 +455,358 @@ public class TextManager {
      * @return The formatted text.
      */
     String formatTextFix(int fixedWidth) {
-
         StringBuilder fixFormatted = new StringBuilder();
-        int currentWidth = 0;
-
-        for (String paragraph : text) {
-            String[] words = paragraph.split("\\s+");
-            for (String word : words) {
-                // If the word itself is longer than maxWidth, break it down.
-                word = breakDownLongWord(word, fixedWidth, fixFormatted, currentWidth);
+        try {
+            formatTextFix(fixedWidth, fixFormatted);
+        } catch (IOException e) {
+            // a StringBuilder does not throw IOExceptions
+            throw new UncheckedIOException(e);
+        }
+        return fixFormatted.toString();
+    }
 
-                // Check if adding the current word exceeds maxWidth
-                currentWidth = appendNewLine(word, fixedWidth, fixFormatted, currentWidth);
+    /**
+     * Formats the text to fit within the specified maximum width and writes the lines
+     * directly to the output, without building the formatted text in memory.
+     *
+     * @param fixedWidth maximum number of characters per line
+     * @param output     destination of the formatted text
+     * @throws IOException if the output cannot be written
+     */
+    void formatTextFix(int fixedWidth, Appendable output) throws IOException {
+        FixedWidthFormatter.format(text.snapshot(), fixedWidth, output, getLayoutCacheForText());
+    }
 
-                // Add a space if it's not the first word on the paragraph
-                currentWidth = appendSpace(fixFormatted, currentWidth);
+    /**
+     * Setter for the text. It is used for testing.
+     *
+     * @param text
+     */
+    // for being able to test the methods
+    public void setText(List<String> text) {
+        this.text = new ParagraphList(text);
+        if (isStoredCompactly()) {
+            storeParagraphs();
+        }
+        isGlossaryOutdated = true;
+        searchIndex = null;
+        rawRenderer.reset(text.size());
+        scheduleGlossary();
+    }
 
-                fixFormatted.append(word);
-                currentWidth += word.length();
+    /**
+     * Replaces the text with the paragraphs of a file. The file is memory mapped, its
+     * paragraphs stay in the mapping and are decoded whenever they are read.
+     */
+    private void loadText() {
+        output.createPrompt("File: ");
+        Path path = readPath();
+        if (path == null) {
+            output.createLoadMessage(false);
+            return;
+        }
+        try {
+            text = new ParagraphList(MappedTextFile.load(path));
+            if (vocabulary != null) {
+                storeParagraphs();
             }
+            textFile = path;
+            isGlossaryOutdated = true;
+            searchIndex = null;
+            rawRenderer.reset(text.size());
+            scheduleGlossary();
+            output.createLoadMessage(true);
+        } catch (IOException e) {
+            output.createLoadMessage(false);
+        }
+    }
+
+    /**
+     * Saves the text to a file. Without a file name the text is saved to the loaded file.
+     */
+    private void saveText() {
+        output.createPrompt("File: ");
+        Path path = readPath();
+        if (path == null) {
+            path = textFile;
+        }
+        if (path == null) {
+            output.createSaveMessage(false);
+            return;
+        }
+        try {
+            MappedTextFile.save(text.snapshot(), path);
+            output.createSaveMessage(true);
+        } catch (IOException e) {
+            output.createSaveMessage(false);
         }
-        return fixFormatted.toString();
     }
 
     /**
-     * If the word itself is longer than maxWidth, break it down. If the word itself
-     * is longer than maxWidth, break it down.
+     * Reads a file name from the user.
      *
-     * @param word
-     * @param maxWidth
-     * @param fixFormatted
-     * @param currentWidth
-     * @return
+     * @return the path of the file or null if no valid file name has been entered
      */
-    String breakDownLongWord(String word, int maxWidth, StringBuilder fixFormatted, int currentWidth) {
-        // If the word itself is longer than maxWidth, break it down.
-        while (word.length() > maxWidth) {
-            if (currentWidth > 0) {
-                fixFormatted.append("\n");
-                currentWidth = 0;
-            }
-            fixFormatted.append(word, 0, maxWidth).append("\n");
-            word = word.substring(maxWidth);
+    private Path readPath() {
+        String fileName = readText(false);
+        if (fileName.isEmpty()) {
+            return null;
+        }
+        try {
+            return Paths.get(fileName);
+        } catch (InvalidPathException e) {
+            return null;
         }
-        return word;
     }
 
     /**
-     * Check if adding the current word exceeds maxWidth, and if it does, add a new
-     * line.
+     * Prints a part of the text if a range is given: "print 5", "print 5-10" or "print page 2".
+     * The numbers are the paragraphs of the raw format or the lines of the fixed format.
      *
-     * @param word
-     * @param maxWidth
-     * @param fixFormatted
-     * @param currentWidth
-     * @return
+     * @param userInput the command and the optional range
      */
-    private int appendNewLine(String word, int maxWidth, StringBuilder fixFormatted, int currentWidth) {
-        if (currentWidth + (currentWidth > 0 ? 1 : 0) + word.length() > maxWidth) {
-            fixFormatted.append("\n");
-            currentWidth = 0;
+    private void printText(String[] userInput) {
+        if (userInput.length < 2) {
+            printText();
+            return;
         }
-        return currentWidth;
+        String range = userInput[1].trim().toLowerCase(Locale.ROOT);
+        int lineCount = isFormatterRaw ? text.size() : getLineIndex().getLineCount();
+        int from;
+        int to;
+        try {
+            if (range.startsWith("page")) {
+                int page = Integer.parseInt(range.substring("page".length()).trim());
+                int pageCount = Math.max(1, (lineCount + PAGE_SIZE - 1) / PAGE_SIZE);
+                if (page < 1 || page > pageCount || lineCount == 0) {
+                    output.createPrintMessage(false);
+                    return;
+                }
+                from = (page - 1) * PAGE_SIZE + 1;
+                to = Math.min(page * PAGE_SIZE, lineCount);
+                printLines(from - 1, to - 1);
+                output.createPageMessage(page, pageCount);
+                return;
+            }
+            int separator = range.indexOf('-');
+            from = Integer.parseInt(separator < 0 ? range : range.substring(0, separator).trim());
+            to = separator < 0 ? from : Integer.parseInt(range.substring(separator + 1).trim());
+        } catch (NumberFormatException e) {
+            output.createPrintMessage(false);
+            return;
+        }
+        if (from < 1 || from > lineCount || to < from) {
+            output.createPrintMessage(false);
+            return;
+        }
+        printLines(from - 1, Math.min(to, lineCount) - 1);
     }
 
     /**
-     * Add a space if it's not the first word on the paragraph.
+     * Prints a range of paragraphs of the raw format or of lines of the fixed format.
+     * Only the paragraphs containing the range are formatted.
      *
-     * @param fixFormatted
-     * @param currentWidth
-     * @return
+     * @param from first paragraph or line, starting at 0
+     * @param to   last paragraph or line, inclusive
      */
-    private int appendSpace(StringBuilder fixFormatted, int currentWidth) {
-        // Add a space if it's not the first word on the paragraph
-        if (currentWidth > 0) {
-            fixFormatted.append(" ");
-            currentWidth++;
+    private void printLines(int from, int to) {
+        Writer writer = output.createTextWriter();
+        try {
+            if (isFormatterRaw) {
+                rawRenderer.render(text.snapshot(), from, to, writer);
+            } else {
+                getLineIndex().writeLines(from, to, writer, getLayoutCacheForText());
+                writer.append(System.lineSeparator());
+            }
+            writer.flush();
+        } catch (IOException e) {
+            output.createPrintMessage(false);
         }
-        return currentWidth;
     }
 
     /**
-     * Setter for the text. It is used for testing.
+     * Gets the index of the lines of the fixed format and builds it if the text or the width
+     * has changed since it was built.
      *
-     * @param text
+     * @return returns the index of the current text
      */
-    // for being able to test the methods
-    public void setText(List<String> text) {
-        this.text = text;
+    private LineIndex getLineIndex() {
+        ParagraphList.Snapshot snapshot = text.snapshot();
+        if (lineIndex == null || !lineIndex.isBuiltFrom(snapshot, fixedWidth)) {
+            lineIndex = LineIndex.build(snapshot, fixedWidth, getLayoutCacheForText());
+        }
+        return lineIndex;
     }
 
     /**
-     * Print the text.
+     * Print the text according to the current format. The lines are streamed to the console.
      */
     private void printText() {
-        StringBuilder sb = new StringBuilder();
-        for (String paragraph : text) {
-            sb.append(paragraph);
+        Writer writer = output.createTextWriter();
+        try {
+            if (isFormatterRaw && isStoredCompactly() && !text.isEmpty()) {
+                // the rendered lines are not cached, they would bring the whole text back onto the heap
+                rawRenderer.render(text.snapshot(), 0, text.size() - 1, writer);
+            } else if (isFormatterRaw) {
+                rawRenderer.render(text.snapshot(), writer);
+            } else {
+                formatTextFix(fixedWidth, writer);
+                writer.append(System.lineSeparator());
+            }
+            writer.flush();
+        } catch (IOException e) {
+            output.createPrintMessage(false);
         }
-        System.out.println(sb);
-
     }
 
     /**
      * Prints the glossary.
      */
     void showGlossary() {
-        System.out.println("Glossary:");
-        glossary = glossary.rebuildGlossary(text);
-        for (String word : glossary.getGlossary().keySet()) {
-            List<Integer> indexes = glossary.getGlossary().get(word);
-            String indexesStr = indexes.stream()
-                    .map(String::valueOf)
-                    .collect(Collectors.joining(", "));
-            System.out.printf("%-10s %s%n", word, indexesStr);
-        }
+        updateGlossary();
+        output.createGlossary(glossary.getGlossary());
     }
 
-    public String replaceWordEnd(String textParagraph,String replacingWord, String replaceWith){
+    private void updateGlossary() {
+        if (backgroundGlossary != null) {
+            // the glossary is built from the current snapshot, usually before it is shown
+            glossary = backgroundGlossary.get(text.snapshot());
+        } else if (isGlossaryOutdated) {
+            glossary = glossary.rebuildGlossary(text.snapshot());
+            isGlossaryOutdated = false;
+        }
+    }
 
-        // Check and replace at the end of the text
-        String []splitText = textParagraph.split(replacingWord);
-        String replacingWordEnd = "";
-        if(splitText.length>=1){
-            replacingWordEnd= " "+replacingWord+splitText[1];
-            replaceWith = replaceWith + splitText[1];
-        }else{
-            replacingWordEnd = " "+replacingWord;
+    /**
+     * Shows the paragraphs containing all words and phrases of the query.
+     * The search index is built by the first search.
+     */
+    private void searchText(String[] userInput) {
+        if (userInput.length < 2) {
+            output.createSearchResult(List.of());
+            return;
         }
-        if(textParagraph.endsWith(replacingWordEnd)){
-            // Use a regular expression to match the word at the end of the sentence
-            // Replace the word with the replacement word
-            textParagraph = textParagraph.replaceAll(replacingWordEnd, " "+replaceWith);
+        if (searchIndex == null) {
+            searchIndex = SearchIndex.build(text.snapshot());
         }
-        return textParagraph;
-
+        output.createSearchResult(searchIndex.search(userInput[1]));
     }
 
     /**
-     * Separates a text paragraph based on a specified replacing word.
-     * If the replacing word is found in the text paragraph, the method returns the portion
-     * of the text that comes after the first occurrence of the replacing word.
-     * If the replacing word is not present, an empty string is returned.
-     *
-     * @param textParagraph   The input text paragraph to be split.
-     * @param replacingWord   The word used as a delimiter for splitting the text.
-     * @return                The portion of the text after the first occurrence of the replacing word,
-     *                        or an empty string if the replacing word is not found.
-     * @throws NullPointerException If either textParagraph or replacingWord is null.
+     * Shows the latencies of the commands and the size of the document.
      */
-    private String separateWordSyntax(String textParagraph, String replacingWord){
-        String []splitText = textParagraph.split(replacingWord);
-        if(splitText.length>1){
-            return splitText[1];
-        }else{
-            return "";
+    private void showStatistics() {
+        if (statistics == null) {
+            output.createUserNoticeMessage("The statistics are disabled. Start the editor with -D"
+                    + STATISTICS_PROPERTY + "=true to enable them.");
+            return;
         }
+        // the glossary is not built just to count its words
+        GlossaryApp currentGlossary = getBuiltGlossary();
+        output.createStatistics(statistics.format(), text.size(), text.getCharacterCount(),
+                currentGlossary == null ? -1 : currentGlossary.getEntryCount());
     }
 
-
     /**
-     * Validates and performs word replacement in a text paragraph at the specified index.
+     * Gets the glossary of the current text if it has already been built.
      *
-     * @param index The index in the 'text' list where the replacement should occur.
-     * @param textParagraph The new text paragraph to replace the existing one.
+     * @return returns the glossary or null if it is outdated
      */
-    private void validateWordReplacement(int index, String textParagraph) {
-        // Check if the new text is different from the existing text at the specified index
-        if (!text.get(index).equals(textParagraph)) {
-            // If different, remove the existing text at the index and add the new text
-            text.remove(index);
-            text.add(index, textParagraph);
-            // Create a message indicating that the replacement was successful
-            output.createReplaceMessage(true);
-        } else {
-            // If the new text is the same as the existing text, create a message indicating no replacement
-            output.createReplaceMessage(false);
+    private GlossaryApp getBuiltGlossary() {
+        if (backgroundGlossary != null) {
+            return backgroundGlossary.getIfBuilt(text.snapshot());
         }
+        return isGlossaryOutdated ? null : glossary;
     }
 
     /**
      * Replaces occurrences of a specified word in the text list at the given index.
+     * Only whole words are replaced, the case of the word is ignored and the rest of
+     * the paragraph is left unchanged.
      *
      * @param index         The index of the text to be modified.
      * @param replacingWord The word to be replaced.
      * @param replaceWith   The word to replace the specified word.
      */
-    private void replaceWord(int index, String replacingWord, String replaceWith){
-        // Retrieve the text to be modified from the list
-        String textParagraph =text.get(index);
-        // Convert the strings to lowercase for case-insensitive comparison
-        textParagraph = textParagraph.toLowerCase();
-        replacingWord = replacingWord.toLowerCase();
+    void replaceWord(int index, String replacingWord, String replaceWith){
         replacingWord = replacingWord.trim();
-        String wordEndSyntax = separateWordSyntax(textParagraph, replacingWord);
-        // Check and replace at the beginning of the text
-        if(textParagraph.startsWith(replacingWord)){
-            textParagraph = textParagraph.replace(replacingWord+" ",replaceWith+" " );
-        }
-        // Check and replace in the middle of the text
-        if(textParagraph.contains(" "+replacingWord+" ")){
-            textParagraph = textParagraph.replaceAll(" "+replacingWord+" "," "+replaceWith+" ");
+        if (replacingWord.isEmpty()) {
+            output.createReplaceMessage(false);
+            return;
         }
-        // Remove the original text and insert the modified text back into the list
-        if(textParagraph.endsWith(replacingWord+wordEndSyntax)){
-            // Replace the word with the replacement word
-            textParagraph = textParagraph.replace(replacingWord+wordEndSyntax, " "+replaceWith+wordEndSyntax);
+        WordReplacer replacer = new WordReplacer(Map.of(replacingWord, replaceWith));
+        if (editParagraph(index, replacer)) {
+            output.createReplaceMessage(true);
+        } else {
+            output.createNoReplacementMessage();
         }
-        validateWordReplacement(index,textParagraph);
-
-
     }
 
     /**
      * Replaces the paragraphs in the specified range with the given text.
      */
     void replaceParagraphSection(String[] userInput) {
-        System.out.print("Replacing Word: ");
-        String wordReplace = input.unsplittedText();
-        System.out.print("Replacing with: ");
-        String replacingWord = input.unsplittedText();
-
-        if (userInput.length>=1) {
-            int index = Integer.parseInt(userInput[1])-1;
-            System.out.println();
-            if (index < text.size() && index>=0) {
-                replaceWord(index,wordReplace,replacingWord );
-            } else{
-                replaceWord(text.size()-1,wordReplace,replacingWord );
+        output.createPrompt("Replacing Word: ");
+        String wordReplace = readText(true);
+        output.createPrompt("Replacing with: ");
+        String replacingWord = readText(true);
+
+        int index = text.size() - 1;
+        if (userInput.length > 1) {
+            try {
+                int convertToInteger = Integer.parseInt(userInput[1]) - 1;
+                if (convertToInteger < text.size() && convertToInteger >= 0) {
+                    index = convertToInteger;
+                }
+            } catch (NumberFormatException e) {
+                output.createReplaceMessage(false);
+                return;
+            }
+        }
+        if (index < 0) {
+            output.createReplaceMessage(false);
+            return;
+        }
+        replaceWord(index, wordReplace, replacingWord);
+    }
+
+    /**
+     * Reads pairs of words and their replacements until an empty word is entered and
+     * replaces them in all paragraphs at once.
+     */
+    private void replaceAllWords() {
+        Map<String, String> replacements = new LinkedHashMap<>();
+        while (true) {
+            output.createPrompt("Replacing Word: ");
+            String word = readText(true).trim();
+            if (word.isEmpty()) {
+                break;
+            }
+            output.createPrompt("Replacing with: ");
+            replacements.put(word, readText(true));
+        }
+        if (replacements.isEmpty()) {
+            output.createReplaceMessage(false);
+            return;
+        }
+        output.createReplaceAllMessage(replaceAll(new WordReplacer(replacements)));
+    }
+
+    /**
+     * Replaces the words in all paragraphs. The text is scanned once, no matter how many
+     * words are replaced.
+     *
+     * @param replacer replacer containing the words and their replacements
+     * @return returns the number of changed paragraphs
+     */
+    int replaceAll(WordReplacer replacer) {
+        int changedParagraphs = 0;
+        for (int i = 0; i < text.size(); i++) {
+            if (editParagraph(i, replacer)) {
+                changedParagraphs++;
             }
         }
+        return changedParagraphs;
     }
 
     /**
@@ -455,6 +853,112 @@ public class TextManager {
         this.fixedWidth = fixedWidth;
     }
 
+    /**
+     * Enables or disables the statistics of the commands. Disabling discards the collected statistics.
+     *
+     * @param isEnabled true if the latencies of the commands are recorded
+     */
+    public void setStatisticsEnabled(boolean isEnabled) {
+        if (!isEnabled) {
+            statistics = null;
+        } else if (statistics == null) {
+            statistics = new CommandStatistics();
+        }
+    }
+
+    /**
+     * Enables or disables maintaining the glossary on a background thread. While it is enabled,
+     * every change is applied to the glossary by the background thread instead of this thread.
+     *
+     * @param isEnabled true if the glossary is built in the background
+     */
+    public void setBackgroundGlossaryEnabled(boolean isEnabled) {
+        if (isEnabled == (backgroundGlossary != null)) {
+            return;
+        }
+        if (backgroundGlossary != null) {
+            backgroundGlossary.close();
+        }
+        backgroundGlossary = isEnabled
+                ? new BackgroundGlossary(new GlossaryApp(), BackgroundGlossary.DEFAULT_DEBOUNCE_MILLIS) : null;
+        // the changes do not update the glossary while it is built in the background,
+        // so it has to be rebuilt when the mode changes
+        isGlossaryOutdated = true;
+        scheduleGlossary();
+    }
+
+    /**
+     * Enables or disables storing the paragraphs outside of the heap. The paragraphs of the
+     * current text are moved to the new storage.
+     *
+     * @param isEnabled true if the paragraphs are stored as UTF-8 bytes outside of the heap
+     */
+    public void setOffHeapEnabled(boolean isEnabled) {
+        if (isEnabled == (offHeapStore != null)) {
+            return;
+        }
+        offHeapStore = isEnabled ? new OffHeapTextStore() : null;
+        storeParagraphs();
+        // the cached lines contain the whole text
+        rawRenderer.reset(text.size());
+    }
+
+    /**
+     * Enables or disables storing the paragraphs as the ids of their tokens in a vocabulary
+     * shared by the whole text. The paragraphs of the current text are encoded or decoded.
+     *
+     * @param isEnabled true if the paragraphs are stored as tokens
+     */
+    public void setTokenStorageEnabled(boolean isEnabled) {
+        if (isEnabled == (vocabulary != null)) {
+            return;
+        }
+        vocabulary = isEnabled ? new Vocabulary() : null;
+        storeParagraphs();
+        rawRenderer.reset(text.size());
+        // the layouts of the token paragraphs are cached by identity, they are not found again
+        layoutCache.clear();
+    }
+
+    /**
+     * Moves all paragraphs of the text to the current storage.
+     */
+    private void storeParagraphs() {
+        for (int i = 0; i < text.size(); i++) {
+            text.setSource(i, toStoredParagraph(text.get(i)));
+        }
+    }
+
+    /**
+     * Schedules a rebuild of the glossary if it is built in the background, e.g. after the
+     * whole text has been replaced.
+     */
+    private void scheduleGlossary() {
+        if (backgroundGlossary != null) {
+            backgroundGlossary.schedule(text.snapshot());
+        }
+    }
+
+    /**
+     * Gets the layout cache if the layouts of the whole text fit into it. A larger text is
+     * formatted without the cache, since every layout would be evicted before it is read again.
+     *
+     * @return returns the layout cache or null if the text does not fit into it
+     */
+    private LayoutCache getLayoutCacheForText() {
+        return layoutCache.fits(text.getCharacterCount(), text.size()) ? layoutCache : null;
+    }
+
+    /**
+     * Sets the maximum memory used to cache the layouts of the fixed format.
+     * The cached layouts are discarded.
+     *
+     * @param capacity maximum estimated memory in bytes, 0 disables the cache
+     */
+    public void setLayoutCacheCapacity(long capacity) {
+        layoutCache = new LayoutCache(capacity);
+    }
+
     /**
      * Getter for the isExitTriggered boolean.
      *
@@ -0,0 +1,253 @@
+package com.NotFalse.app;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Paragraph stored as the ids of its tokens in a shared Vocabulary. Every token takes one int,
+ * and a single space after a word or punctuation is stored as a marker bit of that token
+ * instead of a token of its own, so a repeated word costs four bytes however long it is.
+ * The glossary counts the words by their ids and the fixed format finds the words by the
+ * lengths of the tokens, so neither has to scan the characters. The paragraph is only decoded
+ * when it is read as text. The offset of every CHECKPOINT_INTERVAL-th token is kept, so a
+ * character is found by a binary search and a few tokens and only that token is read.
+ */
+final class TokenParagraph implements CharSequence {
+
+    static final int CHECKPOINT_INTERVAL = 32;
+
+    private final Vocabulary vocabulary;
+    // id of every token shifted left by one, the lowest bit marks a single space after the token
+    private final int[] tokens;
+    // offset of the tokens 0, CHECKPOINT_INTERVAL, 2 * CHECKPOINT_INTERVAL, ... in the paragraph
+    private final int[] checkpoints;
+    private final int length;
+
+    private TokenParagraph(Vocabulary vocabulary, int[] tokens, int[] checkpoints, int length) {
+        this.vocabulary = vocabulary;
+        this.tokens = tokens;
+        this.checkpoints = checkpoints;
+        this.length = length;
+    }
+
+    /**
+     * Splits the paragraph into tokens and adds unknown tokens to the vocabulary.
+     *
+     * @param paragraph  paragraph to be stored
+     * @param vocabulary vocabulary shared by the paragraphs of the text
+     * @return returns the encoded paragraph
+     */
+    static TokenParagraph encode(CharSequence paragraph, Vocabulary vocabulary) {
+        int length = paragraph.length();
+        int[] tokens = new int[8];
+        int[] checkpoints = new int[1];
+        int count = 0;
+        int start = 0;
+        while (start < length) {
+            int kind = Vocabulary.kindOf(paragraph.charAt(start));
+            int end = start + 1;
+            while (end < length && Vocabulary.kindOf(paragraph.charAt(end)) == kind) {
+                end++;
+            }
+            // a single space is the most common separator, it is only marked
+            boolean isSpaceAfter = kind != Vocabulary.WHITESPACE && end < length && paragraph.charAt(end) == ' '
+                    && (end + 1 == length || !FixedWidthFormatter.isWhitespace(paragraph.charAt(end + 1)));
+            if (count == tokens.length) {
+                tokens = Arrays.copyOf(tokens, count * 2);
+            }
+            if (count % CHECKPOINT_INTERVAL == 0) {
+                if (count / CHECKPOINT_INTERVAL == checkpoints.length) {
+                    checkpoints = Arrays.copyOf(checkpoints, checkpoints.length * 2);
+                }
+                checkpoints[count / CHECKPOINT_INTERVAL] = start;
+            }
+            tokens[count++] = vocabulary.intern(paragraph, start, end) << 1 | (isSpaceAfter ? 1 : 0);
+            start = isSpaceAfter ? end + 1 : end;
+        }
+        int checkpointCount = (count + CHECKPOINT_INTERVAL - 1) / CHECKPOINT_INTERVAL;
+        return new TokenParagraph(vocabulary, Arrays.copyOf(tokens, count), Arrays.copyOf(checkpoints, checkpointCount),
+                length);
+    }
+
+    /**
+     * Gets a paragraph of the text in the form the formatter and the glossary read fastest:
+     * the tokens if the paragraph is stored as tokens, otherwise the paragraph as a String.
+     *
+     * @param text  paragraphs of the text
+     * @param index position of the paragraph, starting at 0
+     * @return returns the paragraph
+     */
+    static CharSequence paragraphAt(List<String> text, int index) {
+        if (text instanceof ParagraphList.Snapshot snapshot) {
+            CharSequence source = snapshot.getSource(index);
+            return source instanceof TokenParagraph ? source : source.toString();
+        }
+        return text.get(index);
+    }
+
+    /**
+     * Gets the vocabulary containing the tokens.
+     *
+     * @return returns the vocabulary
+     */
+    Vocabulary getVocabulary() {
+        return vocabulary;
+    }
+
+    /**
+     * Gets the number of tokens. Single spaces after a token are not counted.
+     *
+     * @return returns the number of tokens
+     */
+    int getTokenCount() {
+        return tokens.length;
+    }
+
+    /**
+     * Gets the vocabulary id of a token.
+     *
+     * @param index position of the token, starting at 0
+     * @return returns the id of the token
+     */
+    int getTokenId(int index) {
+        return tokens[index] >>> 1;
+    }
+
+    /**
+     * Finds the words of the fixed format from the lengths of the tokens. The result is the
+     * same as the one of FixedWidthFormatter.computeWordBreaks for the decoded paragraph.
+     *
+     * @return returns pairs of the start and end index of every word
+     */
+    int[] computeWordBreaks() {
+        boolean isWhitespaceFirst = tokens.length > 0 && vocabulary.getKind(getTokenId(0)) == Vocabulary.WHITESPACE;
+        // like split("\\s+"), leading whitespace before a word produces an empty word
+        int size = length == 0 || (isWhitespaceFirst && tokens.length > 1) ? 2 : 0;
+        int[] wordBreaks = new int[Math.max(8, size)];
+        int position = 0;
+        int wordStart = -1;
+        for (int i = 0; i < tokens.length; i++) {
+            int id = getTokenId(i);
+            int tokenEnd = position + vocabulary.getToken(id).length();
+            if (vocabulary.getKind(id) == Vocabulary.WHITESPACE) {
+                if (wordStart >= 0) {
+                    wordBreaks = addWordBreak(wordBreaks, size, wordStart, position);
+                    size += 2;
+                    wordStart = -1;
+                }
+            } else {
+                if (wordStart < 0) {
+                    wordStart = position;
+                }
+                if ((tokens[i] & 1) != 0) {
+                    wordBreaks = addWordBreak(wordBreaks, size, wordStart, tokenEnd);
+                    size += 2;
+                    wordStart = -1;
+                    tokenEnd++;
+                }
+            }
+            position = tokenEnd;
+        }
+        if (wordStart >= 0) {
+            wordBreaks = addWordBreak(wordBreaks, size, wordStart, position);
+            size += 2;
+        }
+        return Arrays.copyOf(wordBreaks, size);
+    }
+
+    private static int[] addWordBreak(int[] wordBreaks, int size, int start, int end) {
+        if (size + 2 > wordBreaks.length) {
+            wordBreaks = Arrays.copyOf(wordBreaks, wordBreaks.length * 2);
+        }
+        wordBreaks[size] = start;
+        wordBreaks[size + 1] = end;
+        return wordBreaks;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + length);
+        }
+        long location = locate(index);
+        String token = vocabulary.getToken(tokens[(int) (location >>> 32)] >>> 1);
+        int offset = index - (int) location;
+        // an index behind the token is its marked space
+        return offset < token.length() ? token.charAt(offset) : ' ';
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("Range: " + start + " - " + end + ", Length: " + length);
+        }
+        if (start == end) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder(end - start);
+        long location = locate(start);
+        int index = (int) (location >>> 32);
+        int tokenStart = (int) location;
+        int position = start;
+        while (position < end) {
+            String token = vocabulary.getToken(tokens[index] >>> 1);
+            int tokenEnd = tokenStart + token.length();
+            if (position < tokenEnd) {
+                int copied = Math.min(end, tokenEnd);
+                builder.append(token, position - tokenStart, copied - tokenStart);
+                position = copied;
+            }
+            if ((tokens[index] & 1) != 0) {
+                if (position == tokenEnd && position < end) {
+                    builder.append(' ');
+                    position++;
+                }
+                tokenEnd++;
+            }
+            tokenStart = tokenEnd;
+            index++;
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Finds the token containing the character, starting at the nearest checkpoint before it.
+     * The marked space after a token belongs to the token.
+     *
+     * @param index index of the character
+     * @return returns the index of the token in the upper 32 bits and its offset in the lower ones
+     */
+    private long locate(int index) {
+        int checkpoint = Arrays.binarySearch(checkpoints, index);
+        if (checkpoint < 0) {
+            checkpoint = -checkpoint - 2;
+        }
+        int token = checkpoint * CHECKPOINT_INTERVAL;
+        int tokenStart = checkpoints[checkpoint];
+        while (true) {
+            int tokenEnd = tokenStart + vocabulary.getToken(tokens[token] >>> 1).length() + (tokens[token] & 1);
+            if (index < tokenEnd) {
+                return (long) token << 32 | tokenStart;
+            }
+            tokenStart = tokenEnd;
+            token++;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(length);
+        for (int token : tokens) {
+            builder.append(vocabulary.getToken(token >>> 1));
+            if ((token & 1) != 0) {
+                builder.append(' ');
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,166 @@
+package com.NotFalse.app;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Paragraph stored as UTF-8 bytes in a buffer outside of the heap, either a memory mapped file
+ * or a block of an OffHeapTextStore. The decoded text is not kept in memory.
+ * The length is counted when the paragraph is created. A paragraph containing only ASCII
+ * characters reads a character directly from its byte. Other paragraphs remember where every
+ * window of WINDOW_SIZE characters starts in the bytes, so a character is read by decoding
+ * only its window, and the last decoded window is kept for the following characters.
+ * The buffer is only read with absolute methods, so a paragraph can be read by several threads.
+ */
+final class Utf8Paragraph implements CharSequence {
+
+    static final int WINDOW_SIZE = 256;
+
+    private final ByteBuffer buffer;
+    private final int start;
+    private final int end;
+    private final int length;
+    // first character and first byte of every window, null if the paragraph is ASCII
+    private final int[] windowChars;
+    private final int[] windowBytes;
+    private volatile Window window;
+
+    Utf8Paragraph(ByteBuffer buffer, int start, int end) {
+        this.buffer = buffer;
+        this.start = start;
+        this.end = end;
+        if (isAscii(buffer, start, end)) {
+            length = end - start;
+            windowChars = null;
+            windowBytes = null;
+            return;
+        }
+        // decodes the paragraph once in windows to count the characters
+        CharsetDecoder decoder = newDecoder();
+        ByteBuffer input = buffer.slice(start, end - start);
+        CharBuffer output = CharBuffer.allocate(WINDOW_SIZE);
+        int[] chars = new int[8];
+        int[] bytes = new int[8];
+        int count = 0;
+        int charCount = 0;
+        boolean isOverflow = true;
+        while (isOverflow) {
+            if (count == chars.length) {
+                chars = Arrays.copyOf(chars, count * 2);
+                bytes = Arrays.copyOf(bytes, count * 2);
+            }
+            chars[count] = charCount;
+            bytes[count++] = input.position();
+            output.clear();
+            isOverflow = decoder.decode(input, output, true).isOverflow();
+            charCount += output.position();
+        }
+        length = charCount;
+        windowChars = Arrays.copyOf(chars, count);
+        windowBytes = Arrays.copyOf(bytes, count);
+    }
+
+    /**
+     * Gets the bytes of the paragraph without copying them.
+     *
+     * @return returns a read-only buffer containing the UTF-8 bytes
+     */
+    ByteBuffer getBytes() {
+        return buffer.slice(start, end - start).asReadOnlyBuffer();
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + length);
+        }
+        if (windowChars == null) {
+            return (char) buffer.get(start + index);
+        }
+        Window current = window;
+        if (current == null || index < current.firstChar || index >= current.firstChar + current.chars.length) {
+            current = decodeWindow(index);
+            window = current;
+        }
+        return current.chars[index - current.firstChar];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("Range: " + start + " - " + end + ", Length: " + length);
+        }
+        if (windowChars == null) {
+            byte[] bytes = new byte[end - start];
+            buffer.get(this.start + start, bytes);
+            return new String(bytes, StandardCharsets.US_ASCII);
+        }
+        StringBuilder builder = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            builder.append(charAt(i));
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decodes the window containing the character. The decoder starts at the same byte and
+     * stops after the same number of characters as when the windows were counted, so the
+     * window contains the same characters.
+     */
+    private Window decodeWindow(int index) {
+        int windowIndex = Arrays.binarySearch(windowChars, index);
+        if (windowIndex < 0) {
+            windowIndex = -windowIndex - 2;
+        }
+        ByteBuffer input = buffer.slice(start + windowBytes[windowIndex], end - start - windowBytes[windowIndex]);
+        CharBuffer output = CharBuffer.allocate(WINDOW_SIZE);
+        newDecoder().decode(input, output, true);
+        return new Window(windowChars[windowIndex], Arrays.copyOf(output.array(), output.position()));
+    }
+
+    private static CharsetDecoder newDecoder() {
+        // malformed bytes are replaced like in new String(bytes, UTF_8)
+        return StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    private static boolean isAscii(ByteBuffer buffer, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decoded characters of one window.
+     */
+    private static final class Window {
+
+        private final int firstChar;
+        private final char[] chars;
+
+        Window(int firstChar, char[] chars) {
+            this.firstChar = firstChar;
+            this.chars = chars;
+        }
+    }
+}
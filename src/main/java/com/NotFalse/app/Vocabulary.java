@@ -0,0 +1,140 @@
+package com.NotFalse.app;
+
+import java.util.Arrays;
+
+/**
+ * Interned tokens of the paragraphs stored as TokenParagraphs. A token is a word, a run of
+ * whitespace or a run of other characters, and every distinct token is stored once and
+ * identified by an id, starting at 0. Tokens are never removed, so an id stays valid as long
+ * as the vocabulary is used. The tokens are looked up by a span of a text in an open addressing
+ * hash table like the one of WordFrequencyTable, so a String is only created for a new token.
+ * Tokens are added by the editor while the glossary may read them on another thread, so adding
+ * is synchronized, and a token is only read by paragraphs published after it has been added.
+ */
+final class Vocabulary {
+
+    static final int WORD = 0;
+    static final int WHITESPACE = 1;
+    static final int OTHER = 2;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    // contains id + 1 of the token, 0 marks an empty slot
+    private int[] slots = new int[INITIAL_CAPACITY * 2];
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    private volatile String[] tokens = new String[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Gets the id of the token and adds it if it is unknown.
+     *
+     * @param text  text containing the token
+     * @param start index of the first character of the token
+     * @param end   index after the last character of the token
+     * @return returns the id of the token
+     */
+    synchronized int intern(CharSequence text, int start, int end) {
+        int hash = hash(text, start, end);
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+        String[] currentTokens = tokens;
+        while (slots[slot] != 0) {
+            int id = slots[slot] - 1;
+            if (hashes[id] == hash && matches(currentTokens[id], text, start, end)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        int id = size++;
+        if (id == currentTokens.length) {
+            currentTokens = Arrays.copyOf(currentTokens, id * 2);
+            hashes = Arrays.copyOf(hashes, id * 2);
+        }
+        currentTokens[id] = text.subSequence(start, end).toString();
+        hashes[id] = hash;
+        slots[slot] = id + 1;
+        // the token is published with the array, so readers on other threads see it
+        tokens = currentTokens;
+        // keeps the load factor of the slots below 0.5
+        if (size * 2 > slots.length) {
+            rehash(slots.length * 2);
+        }
+        return id;
+    }
+
+    /**
+     * Gets the token with the given id.
+     *
+     * @param id id of the token
+     * @return returns the token
+     */
+    String getToken(int id) {
+        return tokens[id];
+    }
+
+    /**
+     * Gets the kind of the token with the given id.
+     *
+     * @param id id of the token
+     * @return returns WORD, WHITESPACE or OTHER
+     */
+    int getKind(int id) {
+        return kindOf(tokens[id].charAt(0));
+    }
+
+    /**
+     * Gets the number of tokens. The ids of the tokens are 0 to size - 1.
+     *
+     * @return returns the number of tokens
+     */
+    synchronized int size() {
+        return size;
+    }
+
+    private void rehash(int capacity) {
+        slots = new int[capacity];
+        int mask = capacity - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hashes[id] & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id + 1;
+        }
+    }
+
+    private static int hash(CharSequence text, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + text.charAt(i);
+        }
+        // spreads the higher bits, because the table only uses the lower ones
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean matches(String token, CharSequence text, int start, int end) {
+        if (token.length() != end - start) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (token.charAt(i - start) != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the kind of the tokens the character can be part of. Words are the words of the
+     * glossary and whitespace separates the words of the fixed format.
+     *
+     * @param character character to be checked
+     * @return returns WORD, WHITESPACE or OTHER
+     */
+    static int kindOf(char character) {
+        if (WordTokenizer.isWordCharacter(character)) {
+            return WORD;
+        }
+        return FixedWidthFormatter.isWhitespace(character) ? WHITESPACE : OTHER;
+    }
+}
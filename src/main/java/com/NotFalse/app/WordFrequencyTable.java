@@ -0,0 +1,187 @@
+package com.NotFalse.app;
+
+import java.util.Arrays;
+
+/**
+ * Hash table which counts how often each word occurs. The words are looked up by
+ * a span of a text and compared case-insensitively, so a String is only created the
+ * first time a word is seen. Every word gets a fixed id, starting at 0, which can be
+ * used to store further information about the word in arrays.
+ */
+final class WordFrequencyTable {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    // contains id + 1 of the word, 0 marks an empty slot
+    private int[] slots;
+    private String[] words;
+    private int[] hashes;
+    private int[] frequencies;
+    private int size;
+
+    /**
+     * Constructor for WordFrequencyTable.
+     */
+    WordFrequencyTable() {
+        slots = new int[INITIAL_CAPACITY * 2];
+        words = new String[INITIAL_CAPACITY];
+        hashes = new int[INITIAL_CAPACITY];
+        frequencies = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Adds the delta to the frequency of the word. Unknown words are added to the table.
+     *
+     * @param text  text containing the word
+     * @param start index of the first character of the word
+     * @param end   index after the last character of the word
+     * @param delta value added to the frequency
+     * @return returns the id of the word
+     */
+    int add(CharSequence text, int start, int end, int delta) {
+        int hash = hash(text, start, end);
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+        while (slots[slot] != 0) {
+            int id = slots[slot] - 1;
+            if (hashes[id] == hash && matches(words[id], text, start, end)) {
+                frequencies[id] += delta;
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        int id = insert(slot, hash, toLowerCaseString(text, start, end));
+        frequencies[id] = delta;
+        return id;
+    }
+
+    /**
+     * Finds the id of the word.
+     *
+     * @param text  text containing the word
+     * @param start index of the first character of the word
+     * @param end   index after the last character of the word
+     * @return returns the id of the word or -1 if the word is unknown
+     */
+    int find(CharSequence text, int start, int end) {
+        int hash = hash(text, start, end);
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+        while (slots[slot] != 0) {
+            int id = slots[slot] - 1;
+            if (hashes[id] == hash && matches(words[id], text, start, end)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the id of the word.
+     *
+     * @param word word to be searched
+     * @return returns the id of the word or -1 if the word is unknown
+     */
+    int find(String word) {
+        return find(word, 0, word.length());
+    }
+
+    /**
+     * Adds the delta to the frequency of the word with the given id.
+     *
+     * @param id    id of the word
+     * @param delta value added to the frequency
+     */
+    void addFrequency(int id, int delta) {
+        frequencies[id] += delta;
+    }
+
+    /**
+     * Gets the word with the given id in lowercase.
+     *
+     * @param id id of the word
+     * @return returns the word
+     */
+    String getWord(int id) {
+        return words[id];
+    }
+
+    /**
+     * Gets the frequency of the word with the given id.
+     *
+     * @param id id of the word
+     * @return returns the frequency
+     */
+    int getFrequency(int id) {
+        return frequencies[id];
+    }
+
+    /**
+     * Gets the number of words in the table. The ids of the words are 0 to size - 1.
+     *
+     * @return returns the number of words
+     */
+    int size() {
+        return size;
+    }
+
+    private int insert(int slot, int hash, String word) {
+        int id = size++;
+        if (id == words.length) {
+            int capacity = words.length * 2;
+            words = Arrays.copyOf(words, capacity);
+            hashes = Arrays.copyOf(hashes, capacity);
+            frequencies = Arrays.copyOf(frequencies, capacity);
+        }
+        words[id] = word;
+        hashes[id] = hash;
+        slots[slot] = id + 1;
+        // keeps the load factor of the slots below 0.5
+        if (size * 2 > slots.length) {
+            rehash(slots.length * 2);
+        }
+        return id;
+    }
+
+    private void rehash(int capacity) {
+        slots = new int[capacity];
+        int mask = capacity - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hashes[id] & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id + 1;
+        }
+    }
+
+    private static int hash(CharSequence text, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + WordTokenizer.toLowerCase(text.charAt(i));
+        }
+        // spreads the higher bits, because the table only uses the lower ones
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean matches(String word, CharSequence text, int start, int end) {
+        if (word.length() != end - start) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (word.charAt(i - start) != WordTokenizer.toLowerCase(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String toLowerCaseString(CharSequence text, int start, int end) {
+        char[] characters = new char[end - start];
+        for (int i = start; i < end; i++) {
+            characters[i - start] = WordTokenizer.toLowerCase(text.charAt(i));
+        }
+        return new String(characters);
+    }
+}
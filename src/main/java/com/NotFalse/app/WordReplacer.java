@@ -0,0 +1,267 @@
+package com.NotFalse.app;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces many words at once with an Aho-Corasick automaton, so every paragraph is scanned
+ * only once, no matter how many words are replaced.
+ * Words are matched as whole words and without regard to case. Letters of every script, including
+ * umlauts, and digits belong to a word, so "rich" is not replaced in "Zürich" and "abc" is not
+ * replaced in "abc1". If several words match at the
+ * same position, the longest one is replaced. The rest of the paragraph is left unchanged.
+ * An instance reuses its buffers between paragraphs, so it must only be used by one thread.
+ */
+final class WordReplacer {
+
+    private static final int ROOT = 0;
+
+    // maps the characters of the words to the columns of the transition table, other characters to 0
+    private final int[] asciiSymbols = new int[128];
+    private final Map<Character, Integer> otherSymbols = new LinkedHashMap<>();
+    private final String[] words;
+    private final String[] replacements;
+    // transitions[node * symbolCount + symbol] is the next node, after the construction for every symbol
+    private int[] transitions;
+    private int symbolCount = 1;
+    private int nodeCount = 1;
+    // index of the word ending at the node or -1
+    private int[] nodeWord;
+    // next node on the failure path at which a word ends or -1
+    private int[] outputLink;
+    private int[] matchEnds = new int[0];
+    private int[] matchWords = new int[0];
+    private int[] matchStarts = new int[0];
+
+    /**
+     * Constructor for WordReplacer.
+     *
+     * @param replacements replacement for every word, words which only differ in case
+     *                     are treated as the same word
+     * @throws IllegalArgumentException if a word is empty
+     */
+    WordReplacer(Map<String, String> replacements) {
+        Map<String, String> uniqueWords = new LinkedHashMap<>();
+        for (Map.Entry<String, String> replacement : replacements.entrySet()) {
+            if (replacement.getKey().isEmpty()) {
+                throw new IllegalArgumentException("The word to be replaced must not be empty.");
+            }
+            uniqueWords.put(toLowerCase(replacement.getKey()), replacement.getValue());
+        }
+        words = uniqueWords.keySet().toArray(new String[0]);
+        this.replacements = uniqueWords.values().toArray(new String[0]);
+        for (String word : words) {
+            for (int i = 0; i < word.length(); i++) {
+                addSymbol(word.charAt(i));
+            }
+        }
+        buildAutomaton();
+    }
+
+    /**
+     * Replaces all words in the paragraph.
+     *
+     * @param paragraph paragraph to be searched
+     * @return returns the paragraph with the replaced words, or the same String if no word was found
+     */
+    String replace(String paragraph) {
+        int length = paragraph.length();
+        if (!findMatches(paragraph)) {
+            return paragraph;
+        }
+        StringBuilder replaced = new StringBuilder(length + 16);
+        int copied = 0;
+        int position = 0;
+        while (position < length) {
+            if (matchEnds[position] > 0) {
+                replaced.append(paragraph, copied, position).append(replacements[matchWords[position]]);
+                position = matchEnds[position];
+                copied = position;
+            } else {
+                position++;
+            }
+        }
+        replaced.append(paragraph, copied, length);
+        return replaced.toString();
+    }
+
+    /**
+     * Replaces all words in the paragraph in place. Only the pieces of the paragraph are
+     * changed, the paragraph is not copied.
+     *
+     * @param paragraph paragraph to be searched and edited
+     * @return returns true if the paragraph has been changed
+     */
+    boolean replace(PieceTable paragraph) {
+        int length = paragraph.length();
+        if (!findMatches(paragraph)) {
+            return false;
+        }
+        // collect the matches first, the paragraph must not change while they are found
+        if (matchStarts.length < length) {
+            matchStarts = new int[matchEnds.length];
+        }
+        int matchCount = 0;
+        int position = 0;
+        while (position < length) {
+            if (matchEnds[position] > 0) {
+                matchStarts[matchCount++] = position;
+                position = matchEnds[position];
+            } else {
+                position++;
+            }
+        }
+        // editing from the end keeps the positions of the remaining matches valid
+        boolean isChanged = false;
+        for (int i = matchCount - 1; i >= 0; i--) {
+            int start = matchStarts[i];
+            String replacement = replacements[matchWords[start]];
+            if (!regionEquals(paragraph, start, matchEnds[start], replacement)) {
+                paragraph.replace(start, matchEnds[start], replacement);
+                isChanged = true;
+            }
+        }
+        return isChanged;
+    }
+
+    /**
+     * Runs the automaton over the paragraph and stores the longest whole word match for every
+     * start position.
+     *
+     * @return returns true if at least one word was found
+     */
+    private boolean findMatches(CharSequence paragraph) {
+        int length = paragraph.length();
+        if (matchEnds.length < length) {
+            matchEnds = new int[Math.max(length, matchEnds.length * 2)];
+            matchWords = new int[matchEnds.length];
+        } else {
+            Arrays.fill(matchEnds, 0, length, 0);
+        }
+        boolean found = false;
+        int node = ROOT;
+        for (int i = 0; i < length; i++) {
+            node = transitions[node * symbolCount + symbol(toLowerCase(paragraph.charAt(i)))];
+            int end = i + 1;
+            if (end < length && isWordCharacter(paragraph.charAt(end))) {
+                // a word ending inside another word is never a whole word
+                continue;
+            }
+            for (int output = nodeWord[node] >= 0 ? node : outputLink[node]; output >= 0;
+                 output = outputLink[output]) {
+                int word = nodeWord[output];
+                int start = end - words[word].length();
+                if ((start == 0 || !isWordCharacter(paragraph.charAt(start - 1))) && end > matchEnds[start]) {
+                    matchEnds[start] = end;
+                    matchWords[start] = word;
+                    found = true;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Builds the trie of the words and turns it into a complete transition table by
+     * following the failure links in breadth-first order.
+     */
+    private void buildAutomaton() {
+        int maxNodes = 1;
+        for (String word : words) {
+            maxNodes += word.length();
+        }
+        transitions = new int[maxNodes * symbolCount];
+        Arrays.fill(transitions, -1);
+        nodeWord = new int[maxNodes];
+        Arrays.fill(nodeWord, -1);
+        for (int i = 0; i < words.length; i++) {
+            int node = ROOT;
+            for (int j = 0; j < words[i].length(); j++) {
+                int index = node * symbolCount + symbol(words[i].charAt(j));
+                if (transitions[index] < 0) {
+                    transitions[index] = nodeCount++;
+                }
+                node = transitions[index];
+            }
+            nodeWord[node] = i;
+        }
+        int[] failure = new int[nodeCount];
+        outputLink = new int[nodeCount];
+        Arrays.fill(outputLink, -1);
+        List<Integer> queue = new ArrayList<>(nodeCount);
+        for (int symbol = 0; symbol < symbolCount; symbol++) {
+            int child = transitions[symbol];
+            if (child < 0) {
+                transitions[symbol] = ROOT;
+            } else {
+                failure[child] = ROOT;
+                queue.add(child);
+            }
+        }
+        for (int head = 0; head < queue.size(); head++) {
+            int node = queue.get(head);
+            for (int symbol = 0; symbol < symbolCount; symbol++) {
+                int index = node * symbolCount + symbol;
+                int child = transitions[index];
+                int fallback = transitions[failure[node] * symbolCount + symbol];
+                if (child < 0) {
+                    transitions[index] = fallback;
+                } else {
+                    failure[child] = fallback;
+                    outputLink[child] = nodeWord[fallback] >= 0 ? fallback : outputLink[fallback];
+                    queue.add(child);
+                }
+            }
+        }
+        transitions = Arrays.copyOf(transitions, nodeCount * symbolCount);
+    }
+
+    private void addSymbol(char character) {
+        if (character < asciiSymbols.length) {
+            if (asciiSymbols[character] == 0) {
+                asciiSymbols[character] = symbolCount++;
+            }
+        } else if (!otherSymbols.containsKey(character)) {
+            otherSymbols.put(character, symbolCount++);
+        }
+    }
+
+    private int symbol(char character) {
+        if (character < asciiSymbols.length) {
+            return asciiSymbols[character];
+        }
+        Integer symbol = otherSymbols.get(character);
+        return symbol == null ? 0 : symbol;
+    }
+
+    private static boolean regionEquals(CharSequence text, int start, int end, String word) {
+        if (end - start != word.length()) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) != word.charAt(i - start)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String toLowerCase(String word) {
+        char[] characters = word.toCharArray();
+        for (int i = 0; i < characters.length; i++) {
+            characters[i] = toLowerCase(characters[i]);
+        }
+        return new String(characters);
+    }
+
+    private static char toLowerCase(char character) {
+        return Character.toLowerCase(character);
+    }
+
+    private static boolean isWordCharacter(char character) {
+        return Character.isLetterOrDigit(character);
+    }
+}
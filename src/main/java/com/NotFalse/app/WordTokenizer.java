@@ -0,0 +1,71 @@
+package com.NotFalse.app;
+
+/**
+ * Splits a paragraph into the words used by the glossary. A word is a sequence of the
+ * letters A-Z and a-z, every other character separates two words.
+ * The words are handed over as spans of the paragraph, so no Strings are created.
+ */
+final class WordTokenizer {
+
+    /**
+     * Receives the words found by the tokenizer.
+     */
+    interface WordConsumer {
+
+        /**
+         * Called for every word of the paragraph, in the order they appear.
+         *
+         * @param text  the tokenized text
+         * @param start index of the first character of the word
+         * @param end   index after the last character of the word
+         */
+        void accept(CharSequence text, int start, int end);
+    }
+
+    private WordTokenizer() {
+    }
+
+    /**
+     * Scans the text once and passes every word to the consumer.
+     *
+     * @param text     text to be tokenized
+     * @param consumer consumer of the words
+     */
+    static void tokenize(CharSequence text, WordConsumer consumer) {
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i < length; i++) {
+            if (isWordCharacter(text.charAt(i))) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                consumer.accept(text, start, i);
+                start = -1;
+            }
+        }
+        if (start >= 0) {
+            consumer.accept(text, start, length);
+        }
+    }
+
+    /**
+     * Checks if the character is part of a word.
+     *
+     * @param character character to be checked
+     * @return returns true if the character is a letter from A to Z
+     */
+    static boolean isWordCharacter(char character) {
+        return (character >= 'a' && character <= 'z') || (character >= 'A' && character <= 'Z');
+    }
+
+    /**
+     * Converts an uppercase letter to lowercase, all other characters are returned unchanged.
+     *
+     * @param character character to be converted
+     * @return returns the lowercase character
+     */
+    static char toLowerCase(char character) {
+        return character >= 'A' && character <= 'Z' ? (char) (character + ('a' - 'A')) : character;
+    }
+}
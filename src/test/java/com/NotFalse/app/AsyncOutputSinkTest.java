@@ -0,0 +1,78 @@
+package com.NotFalse.app;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncOutputSinkTest {
+
+    @Test
+    void testFlushWritesAllTextsInOrder() {
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(outContent);
+        AsyncOutputSink sink = new AsyncOutputSink(4, "test-writer");
+        StringBuilder expected = new StringBuilder();
+        // more texts than the capacity of the queue
+        for (int i = 0; i < 100; i++) {
+            sink.write(out, i + ",");
+            expected.append(i).append(',');
+        }
+        sink.flush();
+        assertEquals(expected.toString(), outContent.toString());
+        sink.close();
+    }
+
+    @Test
+    void testOrderAcrossStreams() {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        PrintStream first = new PrintStream(content);
+        PrintStream second = new PrintStream(content);
+        AsyncOutputSink sink = new AsyncOutputSink(16, "test-writer");
+        sink.write(first, "a");
+        sink.write(second, "b");
+        sink.write(first, "c");
+        sink.close();
+        assertEquals("abc", content.toString());
+    }
+
+    @Test
+    void testStreamsAreOnlyFlushedOnRequest() {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        int[] flushCount = new int[1];
+        PrintStream out = new PrintStream(content) {
+            @Override
+            public void flush() {
+                flushCount[0]++;
+                super.flush();
+            }
+        };
+        AsyncOutputSink sink = new AsyncOutputSink(16, "test-writer", false);
+        for (int i = 0; i < 100; i++) {
+            sink.write(out, "line\n");
+        }
+        sink.flush();
+        assertEquals(1, flushCount[0]);
+        sink.write(out, "last\n");
+        sink.close();
+        assertEquals(2, flushCount[0]);
+        assertEquals("line\n".repeat(100) + "last\n", content.toString());
+    }
+
+    @Test
+    void testWriteAfterCloseFails() {
+        AsyncOutputSink sink = new AsyncOutputSink(1, "test-writer");
+        sink.close();
+        // closing and flushing twice does nothing
+        sink.close();
+        sink.flush();
+        assertThrows(IllegalStateException.class, () -> sink.write(System.out, "text"));
+    }
+
+    @Test
+    void testInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new AsyncOutputSink(0, "test-writer"));
+    }
+}
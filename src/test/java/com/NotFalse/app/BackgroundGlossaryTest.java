@@ -0,0 +1,108 @@
+package com.NotFalse.app;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BackgroundGlossaryTest {
+
+    @Test
+    void testGlossaryIsBuiltFromSnapshot() {
+        ParagraphList text = new ParagraphList(Arrays.asList("word word word", "other word"));
+        BackgroundGlossary backgroundGlossary = new BackgroundGlossary(new GlossaryApp(), 0);
+        ParagraphList.Snapshot snapshot = text.snapshot();
+        backgroundGlossary.schedule(snapshot);
+        GlossaryApp glossary = backgroundGlossary.get(snapshot);
+        assertEquals(new GlossaryApp().rebuildGlossary(text).getGlossary(), glossary.getGlossary());
+        // the result of an unchanged text is returned without a new build
+        assertSame(glossary, backgroundGlossary.get(snapshot));
+    }
+
+    @Test
+    void testGetDoesNotWaitForDebounceTime() {
+        ParagraphList text = new ParagraphList(Arrays.asList("alpha alpha alpha"));
+        BackgroundGlossary backgroundGlossary = new BackgroundGlossary(new GlossaryApp(), 60_000);
+        for (int i = 0; i < 10; i++) {
+            text.add("beta beta beta " + i);
+            backgroundGlossary.schedule(text.snapshot());
+        }
+        long start = System.nanoTime();
+        GlossaryApp glossary = backgroundGlossary.get(text.snapshot());
+        assertTrue(System.nanoTime() - start < 10_000_000_000L);
+        assertEquals(new GlossaryApp().rebuildGlossary(text).getGlossary(), glossary.getGlossary());
+    }
+
+    @Test
+    void testGetWithoutScheduledBuild() {
+        ParagraphList text = new ParagraphList(Arrays.asList("gamma gamma gamma"));
+        BackgroundGlossary backgroundGlossary = new BackgroundGlossary(new GlossaryApp(), 0);
+        ParagraphList.Snapshot first = text.snapshot();
+        assertTrue(backgroundGlossary.get(first).getGlossary().containsKey("Gamma"));
+        text.set(0, "delta delta delta");
+        GlossaryApp glossary = backgroundGlossary.get(text.snapshot());
+        assertFalse(glossary.getGlossary().containsKey("Gamma"));
+        assertTrue(glossary.getGlossary().containsKey("Delta"));
+    }
+
+    @Test
+    void testEditsAreAppliedToBuiltGlossary() {
+        ParagraphList text = new ParagraphList(Arrays.asList("alpha alpha alpha", "beta beta"));
+        BackgroundGlossary backgroundGlossary = new BackgroundGlossary(new GlossaryApp(), 0);
+        GlossaryApp first = backgroundGlossary.get(text.snapshot());
+        text.add(1, "beta gamma");
+        backgroundGlossary.insertParagraph(text.snapshot(), 1, "beta gamma");
+        String removed = text.remove(0);
+        backgroundGlossary.removeParagraph(text.snapshot(), 0, removed);
+        text.set(1, "gamma gamma beta");
+        backgroundGlossary.replaceParagraph(text.snapshot(), 1, "beta beta", "gamma gamma beta");
+        GlossaryApp glossary = backgroundGlossary.get(text.snapshot());
+        // the edits update the built glossary instead of building a new one
+        assertSame(first, glossary);
+        assertEquals(new GlossaryApp().rebuildGlossary(text).getGlossary(), glossary.getGlossary());
+
+        // replacing the whole text rebuilds the glossary
+        text = new ParagraphList(Arrays.asList("delta delta delta"));
+        backgroundGlossary.schedule(text.snapshot());
+        GlossaryApp rebuilt = backgroundGlossary.get(text.snapshot());
+        assertNotSame(glossary, rebuilt);
+        assertEquals(new GlossaryApp().rebuildGlossary(text).getGlossary(), rebuilt.getGlossary());
+    }
+
+    @Test
+    void testErrorOfBuildIsPassedToCaller() {
+        GlossaryApp failingBuilder = new GlossaryApp() {
+            @Override
+            public GlossaryApp rebuildGlossary(List<String> text) {
+                throw new StackOverflowError("too deep");
+            }
+        };
+        BackgroundGlossary backgroundGlossary = new BackgroundGlossary(failingBuilder, 0);
+        ParagraphList text = new ParagraphList(Arrays.asList("alpha alpha alpha"));
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            assertThrows(StackOverflowError.class, () -> backgroundGlossary.get(text.snapshot()));
+            text.add("beta");
+            assertThrows(StackOverflowError.class, () -> backgroundGlossary.get(text.snapshot()));
+            backgroundGlossary.close();
+        });
+    }
+
+    @Test
+    void testBuildsShareOnePool() {
+        ParagraphList text = new ParagraphList(Arrays.asList("alpha alpha", "beta beta", "alpha beta"));
+        GlossaryApp builder = new GlossaryApp(1, 2);
+        BackgroundGlossary backgroundGlossary = new BackgroundGlossary(builder, 0);
+        GlossaryApp first = backgroundGlossary.get(text.snapshot());
+        text.add("gamma gamma gamma");
+        GlossaryApp second = backgroundGlossary.get(text.snapshot());
+        assertSame(first.getPool(), second.getPool());
+        assertSame(builder.getPool(), first.getPool());
+        ForkJoinPool pool = builder.getPool();
+        backgroundGlossary.close();
+        assertTrue(pool.isShutdown());
+    }
+}
@@ -0,0 +1,93 @@
+package com.NotFalse.app;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.SequenceInputStream;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CommandStatisticsTest {
+
+    @Test
+    void testRecordAndFormat() {
+        CommandStatistics statistics = new CommandStatistics();
+        statistics.record(Commands.PRINT, 2000, 1024);
+        statistics.record(Commands.PRINT, 4000, 3072);
+        statistics.record(Commands.ADD, 1000, -1);
+
+        assertEquals(2, statistics.getLatencies(Commands.PRINT).getCount());
+        assertNull(statistics.getLatencies(Commands.DEL));
+        String table = statistics.format();
+        assertTrue(table.contains("print"));
+        // two commands allocated 4 KB together
+        assertTrue(table.matches("(?s).*print\\s+2 .* 2\\.0\\R.*"), table);
+        assertTrue(table.matches("(?s).*add\\s+1 .* n/a\\R.*"), table);
+    }
+
+    @Test
+    void testStatsCommand() {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        PrintStream stream = new PrintStream(content);
+        InputReceiver input = new InputReceiver(new ByteArrayInputStream("print\nprint\nstats\nindex\nstats\n".getBytes()));
+        TextManager textManager = new TextManager(input, new OutputManager(stream, stream, false));
+        textManager.setStatisticsEnabled(true);
+        for (int i = 0; i < 5; i++) {
+            textManager.editText();
+        }
+        String output = content.toString();
+        assertTrue(output.matches("(?s).*print\\s+2 .*"), output);
+        // the glossary is only counted after it has been built by the index command
+        assertTrue(output.contains("Document: 3 paragraphs, 115 characters, glossary not up to date"), output);
+        assertTrue(output.contains("Document: 3 paragraphs, 115 characters, 3 glossary words"), output);
+    }
+
+    @Test
+    void testWaitingForTextIsNotMeasured() {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        PrintStream stream = new PrintStream(content);
+        InputStream slowInput = new SequenceInputStream(new ByteArrayInputStream("add\n".getBytes()),
+                new InputStream() {
+                    private final InputStream rest = new ByteArrayInputStream("typed slowly\nstats\n".getBytes());
+                    private boolean hasWaited;
+
+                    @Override
+                    public int read() throws IOException {
+                        if (!hasWaited) {
+                            hasWaited = true;
+                            try {
+                                Thread.sleep(500);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        }
+                        return rest.read();
+                    }
+                });
+        TextManager textManager = new TextManager(new InputReceiver(slowInput), new OutputManager(stream, stream, false));
+        textManager.setStatisticsEnabled(true);
+        textManager.editText();
+        textManager.editText();
+        String output = content.toString();
+        Matcher add = Pattern.compile("add\\s+1\\s+\\S+\\s+\\S+\\s+(\\S+)").matcher(output);
+        assertTrue(add.find(), output);
+        assertTrue(Double.parseDouble(add.group(1)) < 400_000, output);
+    }
+
+    @Test
+    void testStatsCommandDisabled() {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        PrintStream stream = new PrintStream(content);
+        InputReceiver input = new InputReceiver(new ByteArrayInputStream("stats\n".getBytes()));
+        OutputManager output = new OutputManager(stream, stream, false);
+        new TextManager(input, output).editText();
+        assertTrue(content.toString().contains("The statistics are disabled."));
+        assertEquals(0, output.getErrorCount());
+    }
+}
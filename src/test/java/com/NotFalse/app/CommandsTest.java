@@ -15,9 +15,14 @@ public class CommandsTest {
         assertEquals("index", Commands.INDEX.getCommand());
         assertEquals("print", Commands.PRINT.getCommand());
         assertEquals("replace", Commands.REPLACE.getCommand());
+        assertEquals("replace_all", Commands.REPLACE_ALL.getCommand());
         assertEquals("help", Commands.HELP.getCommand());
         assertEquals("format_raw", Commands.FORMAT_RAW.getCommand());
         assertEquals("format_fix", Commands.FORMAT_FIX.getCommand());
+        assertEquals("load", Commands.LOAD.getCommand());
+        assertEquals("save", Commands.SAVE.getCommand());
+        assertEquals("stats", Commands.STATS.getCommand());
+        assertEquals("search", Commands.SEARCH.getCommand());
         assertEquals("unknown", Commands.UNKNOWN.getCommand());
     }
 
@@ -30,17 +35,31 @@ public class CommandsTest {
         assertTrue(Commands.isCommand("index"));
         assertTrue(Commands.isCommand("print"));
         assertTrue(Commands.isCommand("replace"));
+        assertTrue(Commands.isCommand("replace_all"));
         assertTrue(Commands.isCommand("help"));
         assertTrue(Commands.isCommand("format_raw"));
         assertTrue(Commands.isCommand("format_fix"));
+        assertTrue(Commands.isCommand("load"));
+        assertTrue(Commands.isCommand("save"));
+        assertTrue(Commands.isCommand("stats"));
+        assertTrue(Commands.isCommand("search"));
         assertTrue(Commands.isCommand("unknown"));
         assertFalse(Commands.isCommand("not a command"));
     }
 
+    @Test
+    public void testGetCommandsEnum() {
+        assertEquals(Commands.ADD, Commands.getCommandsEnum("add"));
+        assertEquals(Commands.ADD, Commands.getCommandsEnum("ADD"));
+        assertEquals(Commands.FORMAT_FIX, Commands.getCommandsEnum("Format_Fix"));
+        assertEquals(Commands.UNKNOWN, Commands.getCommandsEnum("adds"));
+        assertEquals(Commands.UNKNOWN, Commands.getCommandsEnum(""));
+    }
+
       @Test
       public void testGetCommandsAsString() {
       assertEquals("exit, add, del, dummy, index, print, " +
-      "replace, help, format_raw, format_fix", Commands.getAllCommands());
+      "replace, replace_all, help, format_raw, format_fix, load, save, stats, search", Commands.getAllCommands());
       }
 
 }
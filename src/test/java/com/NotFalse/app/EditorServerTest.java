@@ -0,0 +1,134 @@
+package com.NotFalse.app;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EditorServerTest {
+
+    private EditorServer server;
+    private Thread serverThread;
+    private Level logLevel;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        logLevel = OutputManager.getLogLevel();
+        OutputManager.setLogLevel(Level.OFF);
+        server = new EditorServer(0);
+        serverThread = new Thread(server::serve);
+        serverThread.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        server.close();
+        serverThread.join();
+        OutputManager.setLogLevel(logLevel);
+    }
+
+    @Test
+    void testSessionRunsCommands() throws IOException {
+        String output = runSession("add\nHello server\nprint\nexit\n");
+        assertTrue(output.contains("Text has been added"));
+        assertTrue(output.contains("<4>: Hello server"));
+    }
+
+    @Test
+    void testSessionReadsUtf8AndIsNotLogged() throws IOException {
+        Logger logger = Logger.getLogger(OutputManager.class.getName());
+        List<LogRecord> records = new CopyOnWriteArrayList<>();
+        Handler handler = new Handler() {
+            @Override
+            public void publish(LogRecord logRecord) {
+                records.add(logRecord);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        OutputManager.setLogLevel(Level.ALL);
+        logger.addHandler(handler);
+        try {
+            String output = runSession("add\nGrüne Wörter aus Zürich\nprint\nexit\n");
+            assertTrue(output.contains("<4>: Grüne Wörter aus Zürich"), output);
+        } finally {
+            logger.removeHandler(handler);
+        }
+        assertEquals(List.of(), records);
+    }
+
+    @Test
+    void testSessionsHaveTheirOwnText() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> outputs = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                String paragraph = "Session number " + i;
+                Callable<String> client = () -> runSession("add\n" + paragraph + "\nprint\nexit\n");
+                outputs.add(clients.submit(client));
+            }
+            for (int i = 0; i < outputs.size(); i++) {
+                String output = outputs.get(i).get();
+                assertTrue(output.contains("<4>: Session number " + i + "\n"), output);
+                assertFalse(output.contains("<5>:"), output);
+            }
+        } finally {
+            clients.shutdown();
+        }
+    }
+
+    @Test
+    void testDisconnectEndsSession() throws Exception {
+        try (Socket socket = connect()) {
+            socket.getOutputStream().write("add\n".getBytes(StandardCharsets.UTF_8));
+        }
+        // the server is still accepting new sessions
+        assertTrue(runSession("add\nAfter\nprint\nexit\n").contains("<4>: After"));
+    }
+
+    private Socket connect() throws IOException {
+        return new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+    }
+
+    private String runSession(String commands) throws IOException {
+        try (Socket socket = connect()) {
+            PrintWriter writer = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+            writer.print(commands);
+            writer.flush();
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            StringBuilder output = new StringBuilder();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                output.append(line).append('\n');
+            }
+            return output.toString();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.NotFalse.app;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FixedWidthFormatterTest {
+
+    private String format(int maxWidth, String... paragraphs) throws IOException {
+        StringWriter writer = new StringWriter();
+        FixedWidthFormatter.format(Arrays.asList(paragraphs), maxWidth, writer);
+        return writer.toString();
+    }
+
+    @Test
+    void testWritesWrappedLinesToWriter() throws IOException {
+        assertEquals("Lorem ipsum\ndolor sit\namet.", format(11, "Lorem ipsum dolor sit amet."));
+    }
+
+    @Test
+    void testLongWordAfterTextStartsOnNewLine() throws IOException {
+        assertEquals("ab\n01234\n56789\nx", format(5, "ab 0123456789x"));
+    }
+
+    @Test
+    void testWhitespaceIsCollapsed() throws IOException {
+        assertEquals("a b c", format(10, "a\t b\n\nc  "));
+    }
+
+    @Test
+    void testLeadingWhitespaceBehavesLikeSplit() throws IOException {
+        assertEquals("a  b", format(10, "a", " b"));
+        assertEquals("a b", format(10, "a", "   ", "b"));
+        assertEquals("a  b", format(10, "a", "", "b"));
+    }
+
+    @Test
+    void testInvalidWidth() {
+        assertThrows(IllegalArgumentException.class, () -> format(0, "text"));
+    }
+
+    @Test
+    void testCachedLayoutsGiveSameOutput() throws IOException {
+        LayoutCache cache = new LayoutCache(LayoutCache.DEFAULT_CAPACITY);
+        String[] paragraphs = {"Lorem ipsum dolor sit amet,", "", " consectetur 0123456789012 adipiscing", "elit."};
+        for (int width = 1; width <= 30; width++) {
+            String expected = format(width, paragraphs);
+            StringWriter firstRun = new StringWriter();
+            FixedWidthFormatter.format(Arrays.asList(paragraphs), width, firstRun, cache);
+            StringWriter secondRun = new StringWriter();
+            FixedWidthFormatter.format(Arrays.asList(paragraphs), width, secondRun, cache);
+
+            assertEquals(expected, firstRun.toString());
+            assertEquals(expected, secondRun.toString());
+        }
+        assertEquals(paragraphs.length, cache.getParagraphCount());
+    }
+
+    @Test
+    void testComputeWordBreaks() {
+        assertArrayEquals(new int[]{0, 5, 6, 11}, FixedWidthFormatter.computeWordBreaks("hello world"));
+        assertArrayEquals(new int[]{0, 0, 2, 3}, FixedWidthFormatter.computeWordBreaks("  a\n"));
+        assertArrayEquals(new int[]{0, 0}, FixedWidthFormatter.computeWordBreaks(""));
+        assertArrayEquals(new int[0], FixedWidthFormatter.computeWordBreaks(" \t "));
+    }
+
+    @Test
+    void testWordBreaksAreReusedForOtherWidths() throws IOException {
+        LayoutCache cache = new LayoutCache(LayoutCache.DEFAULT_CAPACITY);
+        String paragraph = "Lorem ipsum dolor sit amet, consectetur adipiscing elit.";
+        FixedWidthFormatter.format(Arrays.asList(paragraph), 72, new StringWriter(), cache);
+        int[] wordBreaks = cache.getWordBreaks(paragraph);
+
+        StringWriter writer = new StringWriter();
+        FixedWidthFormatter.format(Arrays.asList(paragraph), 12, writer, cache);
+        assertSame(wordBreaks, cache.getWordBreaks(paragraph));
+        assertEquals(format(12, paragraph), writer.toString());
+    }
+
+    @Test
+    void testTokenParagraphLayoutsAreCached() throws IOException {
+        LayoutCache cache = new LayoutCache(LayoutCache.DEFAULT_CAPACITY);
+        String[] paragraphs = {"Lorem ipsum dolor sit amet,", "", " consectetur 0123456789012 adipiscing", "elit."};
+        Vocabulary vocabulary = new Vocabulary();
+        List<CharSequence> tokens = new ArrayList<>();
+        for (String paragraph : paragraphs) {
+            tokens.add(TokenParagraph.encode(paragraph, vocabulary));
+        }
+        ParagraphList.Snapshot text = new ParagraphList(tokens).snapshot();
+        for (int width = 1; width <= 30; width++) {
+            StringWriter first = new StringWriter();
+            FixedWidthFormatter.format(text, width, first, cache);
+            StringWriter second = new StringWriter();
+            FixedWidthFormatter.format(text, width, second, cache);
+            assertEquals(format(width, paragraphs), first.toString());
+            assertEquals(format(width, paragraphs), second.toString());
+        }
+        assertEquals(paragraphs.length, cache.getParagraphCount());
+        assertNotNull(cache.getWordBreaks(tokens.get(0)));
+    }
+}
@@ -149,4 +149,177 @@ public class GlossaryAppTest {
         assertFalse(glossaryMap.containsKey("nonexistent"));
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void testInsertParagraphShiftsIndexes() {
+        glossaryOne.insertParagraph(0, "A test paragraph in front.");
+        textOne.add(0, "A test paragraph in front.");
+
+        assertEquals(Arrays.asList(1, 2, 3, 4), glossaryOne.getGlossary().get("Test"));
+        assertEquals(glossaryOne.rebuildGlossary(textOne).getGlossary(), glossaryOne.getGlossary());
+    }
+
+    @Test
+    void testRemoveParagraphShiftsIndexes() {
+        glossaryTwo.removeParagraph(0, textTwo.remove(0));
+
+        assertEquals(Arrays.asList(1, 2), glossaryTwo.getGlossary().get("Paragraph"));
+        assertFalse(glossaryTwo.getGlossary().containsKey("Test"));
+        assertEquals(glossaryTwo.rebuildGlossary(textTwo).getGlossary(), glossaryTwo.getGlossary());
+    }
+
+    @Test
+    void testReplaceParagraphUpdatesGlossary() {
+        String oldParagraph = textThree.set(0, "This is a new new paragraph.");
+        glossaryThree.replaceParagraph(0, oldParagraph, textThree.get(0));
+
+        assertFalse(glossaryThree.getGlossary().containsKey("Test"));
+        assertEquals(Arrays.asList(1, 2), glossaryThree.getGlossary().get("New"));
+        assertEquals(glossaryThree.rebuildGlossary(textThree).getGlossary(), glossaryThree.getGlossary());
+    }
+
+    @Test
+    void testGlossaryMatchesLegacyComputationOne() {
+        assertEquals(legacyGlossary(textOne), glossaryOne.getGlossary());
+    }
+
+    @Test
+    void testGlossaryMatchesLegacyComputationTwo() {
+        assertEquals(legacyGlossary(textTwo), glossaryTwo.getGlossary());
+    }
+
+    @Test
+    void testGlossaryMatchesLegacyComputationThree() {
+        assertEquals(legacyGlossary(textThree), glossaryThree.rebuildGlossary(textThree).getGlossary());
+    }
+
+    @Test
+    void testWordFrequencyMatchesLegacyComputation() {
+        assertEquals(legacyWordFrequency(textTwo), glossaryTwo.computeWordFrequency(textTwo));
+    }
+
+    /**
+     * Computes the word frequency the way it was done with regular expressions, without
+     * counting the empty Strings produced by split.
+     */
+    private Map<String, Integer> legacyWordFrequency(List<String> text) {
+        Map<String, Integer> wordFrequency = new HashMap<>();
+        for (String paragraph : text) {
+            for (String word : paragraph.replaceAll("[^A-Za-z ]", " ").toLowerCase().split(" ")) {
+                if (!word.isEmpty()) {
+                    wordFrequency.merge(word, 1, Integer::sum);
+                }
+            }
+        }
+        wordFrequency.entrySet().removeIf(entry -> entry.getValue() < 3);
+        return wordFrequency;
+    }
+
+    private TreeMap<String, List<Integer>> legacyGlossary(List<String> text) {
+        TreeMap<String, List<Integer>> glossary = new TreeMap<>();
+        for (String word : legacyWordFrequency(text).keySet()) {
+            List<Integer> indexes = new ArrayList<>();
+            for (int i = 0; i < text.size(); i++) {
+                if (text.get(i).replaceAll("[^A-Za-z ]", " ").toLowerCase().contains(word)) {
+                    indexes.add(i + 1);
+                }
+            }
+            glossary.put(word.substring(0, 1).toUpperCase() + word.substring(1), indexes);
+        }
+        return glossary;
+    }
+
+    @Test
+    void testFindParagraphIndexesMatchesWholeWords() {
+        List<String> text = Arrays.asList("A new contract.", "The renewal of the contract.", "New rules, NEW.");
+        assertEquals(Arrays.asList(1, 3), glossaryOne.findParagraphIndexes(text, "new"));
+    }
+
+    @Test
+    void testGlossaryMatchesWholeWords() {
+        List<String> text = Arrays.asList("A new contract.", "The renewal of the contract.", "New rules, NEW.");
+        TreeMap<String, List<Integer>> glossaryMap = glossaryOne.rebuildGlossary(text).getGlossary();
+        assertEquals(Arrays.asList(1, 3), glossaryMap.get("New"));
+        assertFalse(glossaryMap.containsKey("Contract"));
+    }
+
+    @Test
+    void testParallelRebuildMatchesSequentialRebuild() {
+        List<String> text = new ArrayList<>();
+        Random random = new Random(42);
+        String[] words = {"alpha", "Beta", "gamma", "delta", "epsilon", "zeta", "eta", "theta"};
+        for (int i = 0; i < 5000; i++) {
+            StringBuilder paragraph = new StringBuilder();
+            for (int j = 0; j < 1 + random.nextInt(12); j++) {
+                paragraph.append(words[random.nextInt(words.length)]).append(i % 7 == 0 ? ", " : " ");
+            }
+            paragraph.append("word").append((char) ('a' + i % 26)).append(i % 26).append('.');
+            text.add(paragraph.toString());
+        }
+        GlossaryApp sequential = new GlossaryApp(Integer.MAX_VALUE, 1).rebuildGlossary(text);
+        GlossaryApp parallel = new GlossaryApp(1, 4).rebuildGlossary(text);
+
+        assertEquals(sequential.getGlossary(), parallel.getGlossary());
+        assertEquals(sequential.computeWordFrequency(text), parallel.computeWordFrequency(text));
+    }
+
+    @Test
+    void testParallelRebuildKeepsLiveUpdates() {
+        List<String> text = new ArrayList<>(Collections.nCopies(3000, "Some test paragraph."));
+        GlossaryApp parallel = new GlossaryApp(1, 4).rebuildGlossary(text);
+        parallel.removeParagraph(0, text.remove(0));
+        parallel.insertParagraph(10, "A new new new paragraph.");
+        text.add(10, "A new new new paragraph.");
+
+        assertEquals(new GlossaryApp(Integer.MAX_VALUE, 1).rebuildGlossary(text).getGlossary(),
+                parallel.getGlossary());
+    }
+
+    @Test
+    void testInvalidParallelism() {
+        assertThrows(IllegalArgumentException.class, () -> new GlossaryApp(100, 0));
+    }
+
+    @Test
+    void testTokenParagraphsMatchStrings() {
+        List<String> text = Arrays.asList("The test, THE test.", "Another test of the editor", "the end");
+        Vocabulary vocabulary = new Vocabulary();
+        List<CharSequence> tokens = new ArrayList<>();
+        for (String paragraph : text) {
+            tokens.add(TokenParagraph.encode(paragraph, vocabulary));
+        }
+        ParagraphList tokenText = new ParagraphList(tokens);
+        GlossaryApp glossary = new GlossaryApp(Integer.MAX_VALUE, 1).rebuildGlossary(tokenText.snapshot());
+        assertEquals(new GlossaryApp().rebuildGlossary(text).getGlossary(), glossary.getGlossary());
+
+        glossary.removeParagraph(2, tokens.get(2));
+        glossary.replaceParagraph(0, tokens.get(0), TokenParagraph.encode("A test", vocabulary));
+        assertEquals(new GlossaryApp().rebuildGlossary(Arrays.asList("A test", "Another test of the editor"))
+                .getGlossary(), glossary.getGlossary());
+    }
+
+    @Test
+    void testRandomEditsMatchRebuild() {
+        Random random = new Random(23);
+        String[] paragraphs = {"alpha beta", "beta gamma gamma", "alpha", "delta alpha beta", "gamma"};
+        List<String> text = new ArrayList<>();
+        GlossaryApp glossary = new GlossaryApp(Integer.MAX_VALUE, 1);
+        for (int i = 0; i < 500; i++) {
+            int operation = random.nextInt(3);
+            if (text.isEmpty() || operation == 0) {
+                int index = random.nextInt(text.size() + 1);
+                String paragraph = paragraphs[random.nextInt(paragraphs.length)];
+                text.add(index, paragraph);
+                glossary.insertParagraph(index, paragraph);
+            } else if (operation == 1) {
+                int index = random.nextInt(text.size());
+                glossary.removeParagraph(index, text.remove(index));
+            } else {
+                int index = random.nextInt(text.size());
+                String paragraph = paragraphs[random.nextInt(paragraphs.length)];
+                glossary.replaceParagraph(index, text.set(index, paragraph), paragraph);
+            }
+        }
+        assertEquals(new GlossaryApp().rebuildGlossary(text).getGlossary(), glossary.getGlossary());
+    }
+}
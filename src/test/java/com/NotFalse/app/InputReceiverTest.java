@@ -1,6 +1,8 @@
 package com.NotFalse.app;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayInputStream;
@@ -24,23 +26,60 @@ public class InputReceiverTest {
         String inputText = input.splitInput()[0];
         assertEquals(inputText, "AkniecnienTernnvEsflksjSS");
     }
-    /*
-     * @Test
-     * void allowedCharactersAll(){
-     * System.setIn(new
-     * ByteArrayInputStream("Aadf .,:;-!? '()\"%@+*[]{}/&#$ksnkdf23324ä\n".getBytes(
-     * )));
-     * input = new InputReceiver();
-     * String inputText = input.splitInput()[0];
-     * assertEquals( "Aadf .,:;-!? '()\"%@+*[]{}/&#$ksnkdf23324ä", inputText);
-     * }
-     * 
-     * @Test
-     * void unallowedCharacters(){
-     * System.setIn(new ByteArrayInputStream("£€¢¬§°¦éà^`\n".getBytes()));
-     * input = new InputReceiver();
-     * String inputText = input.splitInput()[0];
-     * assertEquals( "", inputText);
-     * }
-     */
+    @Test
+    void parseCommandWithArgument() {
+        assertArrayEquals(new String[]{"ADD", "3"}, InputReceiver.parseCommandLine("  ADD   3  "));
+        assertArrayEquals(new String[]{"print"}, InputReceiver.parseCommandLine("print"));
+        assertArrayEquals(new String[]{""}, InputReceiver.parseCommandLine("   "));
+    }
+
+    @Test
+    void parseCommandWordInArgument() {
+        // only the first word is the command
+        assertArrayEquals(new String[]{"add", "the print and exit words"},
+                InputReceiver.parseCommandLine("add the print and exit words"));
+        assertArrayEquals(new String[]{"hello", "add world"}, InputReceiver.parseCommandLine("hello add world"));
+    }
+
+    @Test
+    void parseFormatCommands() {
+        assertArrayEquals(new String[]{"format_raw"}, InputReceiver.parseCommandLine("FORMAT RAW"));
+        assertArrayEquals(new String[]{"format_fix", "20"}, InputReceiver.parseCommandLine("format fix 20"));
+        assertArrayEquals(new String[]{"format_fix", "20"}, InputReceiver.parseCommandLine("format_fix 20"));
+        assertArrayEquals(new String[]{"format", "bold"}, InputReceiver.parseCommandLine("format bold"));
+    }
+
+    @Test
+    void allowedCharactersAll() {
+        System.setIn(new ByteArrayInputStream("Aadf .,:;-!? '()\"%@+*[]{}\\&#$ksnkdf23324ä\n".getBytes()));
+        input = new InputReceiver();
+        String inputText = input.unsplittedText();
+        assertEquals("Aadf .,:;-!? '()\"%@+*[]{}\\&#$ksnkdf23324ä", inputText);
+    }
+
+    @Test
+    void unallowedCharacters() {
+        System.setIn(new ByteArrayInputStream("£€¢¬§°¦éà^`\n".getBytes()));
+        input = new InputReceiver();
+        String inputText = input.unsplittedText();
+        assertEquals("", inputText);
+    }
+
+    @Test
+    void unallowedCharactersBetweenLetters() {
+        input = new InputReceiver(new ByteArrayInputStream(new byte[0]));
+        // A-z used to allow the characters between Z and a
+        assertEquals("AZaz", input.filterInput("A^Za`z\t~"));
+        assertEquals("format_fix 20", input.filterInput("format_fix 20"));
+        assertEquals("Grüsse aus Zürich", input.filterInput("Grüsse aus Zürich€\u00A0"));
+        // the regex of the baseline filter removed the slash, its disabled test expected it to be kept
+        assertEquals("andor", input.filterInput("and/or"));
+    }
+
+    @Test
+    void filterReturnsSameStringIfNothingIsRemoved() {
+        input = new InputReceiver(new ByteArrayInputStream(new byte[0]));
+        String text = "Nothing to remove here: (1) [2] {3}!";
+        assertSame(text, input.filterInput(text));
+    }
 }
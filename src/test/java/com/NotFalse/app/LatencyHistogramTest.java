@@ -0,0 +1,49 @@
+package com.NotFalse.app;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    void testEmptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(99));
+        assertEquals(0, histogram.getMax());
+    }
+
+    @Test
+    void testPercentilesWithinPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 10000; i++) {
+            histogram.record(i * 1000);
+        }
+        assertEquals(10000, histogram.getCount());
+        assertEquals(10_000_000, histogram.getMax());
+        long p50 = histogram.getPercentile(50);
+        long p99 = histogram.getPercentile(99);
+        assertTrue(p50 >= 5_000_000 && p50 <= 5_000_000 * 1.07, "p50 was " + p50);
+        assertTrue(p99 >= 9_900_000 && p99 <= 9_900_000 * 1.07, "p99 was " + p99);
+        assertEquals(10_000_000, histogram.getPercentile(100));
+        assertEquals(5_000_500, histogram.getMean(), 0.001);
+    }
+
+    @Test
+    void testBucketsCoverAllValues() {
+        long[] values = {0, 1, 15, 16, 17, 31, 32, 1000, 123456789, Long.MAX_VALUE};
+        for (long value : values) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertTrue(LatencyHistogram.bucketUpperBound(index) >= value);
+            if (index > 0) {
+                assertTrue(LatencyHistogram.bucketUpperBound(index - 1) < value);
+            }
+        }
+    }
+
+    @Test
+    void testInvalidPercentile() {
+        assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram().getPercentile(101));
+    }
+}
@@ -0,0 +1,80 @@
+package com.NotFalse.app;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LayoutCacheTest {
+
+    private ParagraphLayout createLayout(int operationCount) {
+        return new ParagraphLayout(new int[operationCount], 0);
+    }
+
+    @Test
+    void testGetByWidthAndStartColumn() {
+        LayoutCache cache = new LayoutCache(LayoutCache.DEFAULT_CAPACITY);
+        ParagraphLayout layout = createLayout(4);
+        cache.put("paragraph", 20, 3, layout);
+
+        assertSame(layout, cache.get("paragraph", 20, 3));
+        assertNull(cache.get("paragraph", 20, 0));
+        assertNull(cache.get("paragraph", 72, 3));
+        assertNull(cache.get("other", 20, 3));
+    }
+
+    @Test
+    void testInvalidate() {
+        LayoutCache cache = new LayoutCache(LayoutCache.DEFAULT_CAPACITY);
+        cache.put("first", 20, 0, createLayout(4));
+        cache.put("second", 20, 0, createLayout(4));
+        cache.invalidate("first");
+
+        assertNull(cache.get("first", 20, 0));
+        assertNotNull(cache.get("second", 20, 0));
+        assertEquals(1, cache.getParagraphCount());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedParagraph() {
+        LayoutCache cache = new LayoutCache(700);
+        cache.put("first", 20, 0, createLayout(50));
+        cache.put("second", 20, 0, createLayout(50));
+        cache.get("first", 20, 0);
+        cache.put("third", 20, 0, createLayout(50));
+
+        assertNotNull(cache.get("first", 20, 0));
+        assertNull(cache.get("second", 20, 0));
+        assertNotNull(cache.get("third", 20, 0));
+        assertTrue(cache.getEstimatedSize() <= 700);
+    }
+
+    @Test
+    void testZeroCapacityCachesNothing() {
+        LayoutCache cache = new LayoutCache(0);
+        cache.put("first", 20, 0, createLayout(4));
+        assertNull(cache.get("first", 20, 0));
+        assertEquals(0, cache.getEstimatedSize());
+    }
+
+    @Test
+    void testCountsParagraphsInSize() {
+        LayoutCache cache = new LayoutCache(1000);
+        String first = "a".repeat(300);
+        cache.put(first, 20, 0, createLayout(1));
+        assertTrue(cache.getEstimatedSize() >= 600);
+        cache.put("b".repeat(300), 20, 0, createLayout(1));
+
+        assertNull(cache.get(first, 20, 0));
+        assertEquals(1, cache.getParagraphCount());
+        cache.clear();
+        assertEquals(0, cache.getEstimatedSize());
+    }
+
+    @Test
+    void testFitsOnlyTextsWhoseLayoutsFit() {
+        LayoutCache cache = new LayoutCache(LayoutCache.DEFAULT_CAPACITY);
+        assertTrue(cache.fits(10_000 * 80L, 10_000));
+        assertFalse(cache.fits(10_000 * 1000L, 10_000));
+        assertFalse(new LayoutCache(0).fits(1, 1));
+    }
+}
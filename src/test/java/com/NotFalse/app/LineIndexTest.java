@@ -0,0 +1,68 @@
+package com.NotFalse.app;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LineIndexTest {
+
+    @Test
+    void testEveryRangeMatchesFullFormat() throws IOException {
+        Random random = new Random(11);
+        List<String> paragraphs = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            StringBuilder paragraph = new StringBuilder();
+            int words = random.nextInt(12);
+            for (int j = 0; j < words; j++) {
+                paragraph.append(j > 0 ? " " : "").append("w".repeat(1 + random.nextInt(14)));
+            }
+            paragraphs.add(paragraph.toString());
+        }
+        ParagraphList text = new ParagraphList(paragraphs);
+        for (int width : new int[] {1, 7, 20, 80}) {
+            StringBuilder formatted = new StringBuilder();
+            FixedWidthFormatter.format(text, width, formatted);
+            String[] lines = formatted.toString().split("\n", -1);
+            LineIndex index = LineIndex.build(text.snapshot(), width, new LayoutCache(LayoutCache.DEFAULT_CAPACITY));
+            assertEquals(lines.length, index.getLineCount());
+            for (int from = 0; from < lines.length; from += 3) {
+                for (int to = from; to < Math.min(lines.length, from + 5); to++) {
+                    StringBuilder range = new StringBuilder();
+                    index.writeLines(from, to, range, null);
+                    assertEquals(String.join("\n", Arrays.copyOfRange(lines, from, to + 1)), range.toString(),
+                            "width " + width + ", lines " + from + "-" + to);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testFindParagraph() {
+        ParagraphList text = new ParagraphList(Arrays.asList("aaaa bbbb", "cc", "dddd eeee ffff"));
+        LineIndex index = LineIndex.build(text.snapshot(), 5, null);
+        // lines: "aaaa", "bbbb", "cc", "dddd", "eeee", "ffff"
+        assertEquals(6, index.getLineCount());
+        assertEquals(0, index.findParagraph(0));
+        assertEquals(0, index.findParagraph(1));
+        assertEquals(1, index.findParagraph(2));
+        assertEquals(2, index.findParagraph(5));
+    }
+
+    @Test
+    void testIndexBelongsToSnapshotAndWidth() {
+        ParagraphList text = new ParagraphList(Arrays.asList("one two"));
+        ParagraphList.Snapshot snapshot = text.snapshot();
+        LineIndex index = LineIndex.build(snapshot, 10, null);
+        assertTrue(index.isBuiltFrom(snapshot, 10));
+        assertFalse(index.isBuiltFrom(snapshot, 11));
+        text.add("three");
+        assertFalse(index.isBuiltFrom(text.snapshot(), 10));
+        assertThrows(IndexOutOfBoundsException.class, () -> index.writeLines(0, 1, new StringBuilder(), null));
+    }
+}
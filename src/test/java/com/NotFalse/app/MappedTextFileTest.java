@@ -0,0 +1,88 @@
+package com.NotFalse.app;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedTextFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testLoadSplitsLines() throws IOException {
+        Path file = directory.resolve("text.txt");
+        Files.write(file, "first\r\nsecond grün\n\nlast".getBytes(StandardCharsets.UTF_8));
+
+        ParagraphList text = new ParagraphList(MappedTextFile.load(file));
+        assertEquals(Arrays.asList("first", "second grün", "", "last"), text);
+    }
+
+    @Test
+    void testLoadEmptyFile() throws IOException {
+        Path file = directory.resolve("empty.txt");
+        Files.createFile(file);
+        assertTrue(MappedTextFile.load(file).isEmpty());
+    }
+
+    @Test
+    void testSaveAndLoad() throws IOException {
+        Path file = directory.resolve("saved.txt");
+        ParagraphList text = new ParagraphList(Arrays.asList("äöü paragraph", "", "another one"));
+        MappedTextFile.save(text, file);
+
+        assertEquals("äöü paragraph\n\nanother one\n", Files.readString(file));
+        assertEquals(text, new ParagraphList(MappedTextFile.load(file)));
+    }
+
+    @Test
+    void testSaveAndLoadDefaultText() throws IOException {
+        Path file = directory.resolve("default.txt");
+        ParagraphList text = new ParagraphList(Arrays.asList("This three thrEE Threeis a new test paragraph.\n",
+                "Another New test paragraph.\n", "Another weird useless nEw test paragraph"));
+        MappedTextFile.save(text, file);
+
+        // the line breaks at the end of the paragraphs do not add empty paragraphs
+        assertEquals(Arrays.asList("This three thrEE Threeis a new test paragraph.", "Another New test paragraph.",
+                "Another weird useless nEw test paragraph"), new ParagraphList(MappedTextFile.load(file)));
+    }
+
+    @Test
+    void testSaveReplacesLineBreaksInsideParagraphs() throws IOException {
+        Path file = directory.resolve("breaks.txt");
+        OffHeapTextStore store = new OffHeapTextStore();
+        ParagraphList text = new ParagraphList();
+        text.add("first\nline\r\n");
+        text.addSource(1, store.store("grün\r\nwiese\r"));
+        MappedTextFile.save(text, file);
+
+        assertEquals(Arrays.asList("first line", "grün wiese"), new ParagraphList(MappedTextFile.load(file)));
+    }
+
+    @Test
+    void testSaveOverLoadedFile() throws IOException {
+        Path file = directory.resolve("text.txt");
+        Files.writeString(file, "one\ntwo\nthree\n");
+        ParagraphList text = new ParagraphList(MappedTextFile.load(file));
+        text.add(0, "zero");
+        text.remove(2);
+        MappedTextFile.save(text, file);
+
+        List<String> expected = Arrays.asList("zero", "one", "three");
+        assertEquals(expected, text);
+        assertEquals(expected, new ParagraphList(MappedTextFile.load(file)));
+    }
+
+    @Test
+    void testLoadMissingFile() {
+        assertThrows(IOException.class, () -> MappedTextFile.load(directory.resolve("missing.txt")));
+    }
+}
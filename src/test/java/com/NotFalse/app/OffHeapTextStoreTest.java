@@ -0,0 +1,41 @@
+package com.NotFalse.app;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffHeapTextStoreTest {
+
+    @Test
+    void testStoreAndDecode() {
+        OffHeapTextStore store = new OffHeapTextStore();
+        Utf8Paragraph first = store.store("Grüße aus Zürich\n");
+        Utf8Paragraph second = store.store("");
+        Utf8Paragraph third = store.store("third");
+        assertEquals("Grüße aus Zürich\n", first.toString());
+        assertEquals("", second.toString());
+        assertEquals("third", third.toString());
+        assertEquals('ü', first.charAt(2));
+        assertEquals(17, first.length());
+        assertEquals(OffHeapTextStore.BLOCK_SIZE, store.getAllocatedBytes());
+    }
+
+    @Test
+    void testBytesAreOutsideOfTheHeap() {
+        Utf8Paragraph paragraph = new OffHeapTextStore().store("äb");
+        assertTrue(paragraph.getBytes().isDirect());
+        assertTrue(paragraph.getBytes().isReadOnly());
+        assertEquals(3, paragraph.getBytes().remaining());
+    }
+
+    @Test
+    void testLargeParagraphGetsOwnBuffer() {
+        OffHeapTextStore store = new OffHeapTextStore();
+        String large = "x".repeat(OffHeapTextStore.BLOCK_SIZE / 4 + 1);
+        Utf8Paragraph paragraph = store.store(large);
+        assertEquals(large, paragraph.toString());
+        assertEquals(large.length(), store.getAllocatedBytes());
+        store.store("small");
+        assertEquals(large.length() + OffHeapTextStore.BLOCK_SIZE, store.getAllocatedBytes());
+    }
+}
@@ -11,6 +11,7 @@ import java.util.logging.Logger;
 import java.util.logging.Handler;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 
 public class OutputManagerTest {
 
@@ -112,4 +113,38 @@ public class OutputManagerTest {
         outputManager.createInvalidCommandMessage();
         assertEquals("Invalid command! Please try again.", outContent.toString().trim());
     }
+
+    @Test
+    public void testAsynchronousOutputIsWrittenOnFlush() throws Exception {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        PrintStream stream = new PrintStream(content);
+        OutputManager outputManager = new OutputManager(stream, stream, false, true);
+        outputManager.createAddMessage(true);
+        outputManager.createAddMessage(false);
+        java.io.Writer writer = outputManager.createTextWriter();
+        writer.write("<1>: text\n");
+        writer.flush();
+        outputManager.createInvalidCommandMessage();
+        outputManager.close();
+        assertEquals("Text has been added\nText has not been added\n<1>: text\nInvalid command! Please try again.",
+                content.toString().trim().replace(System.lineSeparator(), "\n"));
+        assertEquals(2, outputManager.getErrorCount());
+    }
+
+    @Test
+    public void testParseLogLevel() {
+        assertEquals(Level.OFF, OutputManager.parseLogLevel("off"));
+        assertEquals(Level.WARNING, OutputManager.parseLogLevel(" WARNING "));
+        assertEquals(Level.INFO, OutputManager.parseLogLevel(null));
+        assertEquals(Level.INFO, OutputManager.parseLogLevel("loud"));
+    }
+
+    @Test
+    public void testLogHandlerIsInstalledOnce() {
+        new OutputManager();
+        new OutputManager();
+        Logger logger = Logger.getLogger(OutputManager.class.getName());
+        assertEquals(1, logger.getHandlers().length);
+        assertFalse(logger.getUseParentHandlers());
+    }
 }
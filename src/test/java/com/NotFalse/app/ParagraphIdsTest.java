@@ -0,0 +1,65 @@
+package com.NotFalse.app;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParagraphIdsTest {
+
+    @Test
+    void testNewTextIsNumberedInOrder() {
+        ParagraphIds ids = new ParagraphIds(100);
+        assertEquals(100, ids.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, ids.getId(i));
+            assertEquals(i, ids.getIndex(i));
+        }
+    }
+
+    @Test
+    void testIdsStayStable() {
+        ParagraphIds ids = new ParagraphIds(3);
+        int inserted = ids.insert(0);
+        assertEquals(3, inserted);
+        assertEquals(0, ids.getIndex(inserted));
+        assertEquals(3, ids.getIndex(2));
+        assertEquals(0, ids.remove(1));
+        assertEquals(2, ids.getIndex(2));
+        // the id of the removed paragraph is reused
+        assertEquals(0, ids.insert(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> ids.getId(4));
+    }
+
+    @Test
+    void testRandomOperations() {
+        Random random = new Random(17);
+        ParagraphIds ids = new ParagraphIds(50);
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            expected.add(i);
+        }
+        for (int operation = 0; operation < 5000; operation++) {
+            if (expected.isEmpty() || random.nextInt(3) > 0) {
+                int index = random.nextInt(expected.size() + 1);
+                expected.add(index, ids.insert(index));
+            } else {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.remove(index).intValue(), ids.remove(index));
+            }
+            assertEquals(expected.size(), ids.size());
+            if (!expected.isEmpty()) {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.get(index).intValue(), ids.getId(index));
+                assertEquals(index, ids.getIndex(expected.get(index)));
+            }
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(i, ids.getIndex(expected.get(i)));
+        }
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), ids.toArray());
+    }
+}
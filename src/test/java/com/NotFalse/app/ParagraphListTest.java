@@ -0,0 +1,182 @@
+package com.NotFalse.app;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParagraphListTest {
+
+    @Test
+    void testListOperations() {
+        ParagraphList text = new ParagraphList(Arrays.asList("a", "b"));
+        text.add(1, "c");
+        text.add("d");
+        assertEquals("b", text.set(2, "e"));
+        assertEquals("a", text.remove(0));
+        assertEquals(Arrays.asList("c", "e", "d"), text);
+    }
+
+    @Test
+    void testParagraphsAreConvertedWhenRead() {
+        ParagraphList text = new ParagraphList(Arrays.asList(new StringBuilder("builder")));
+        assertEquals("builder", text.get(0));
+        assertTrue(text.getSource(0) instanceof StringBuilder);
+    }
+
+    @Test
+    void testInsertAtFrontSplitsChunks() {
+        ParagraphList text = new ParagraphList();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            text.add(0, "p" + i);
+            expected.add(0, "p" + i);
+        }
+        assertEquals(expected, text);
+        assertTrue(text.getChunkCount() > 5000 / ParagraphList.CHUNK_SIZE);
+        for (int i = 0; i < expected.size(); i += 97) {
+            assertEquals(expected.get(i), text.get(i));
+        }
+    }
+
+    @Test
+    void testRandomOperationsMatchArrayList() {
+        Random random = new Random(42);
+        ParagraphList text = new ParagraphList();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            int operation = random.nextInt(10);
+            if (expected.isEmpty() || operation < 5) {
+                int index = random.nextInt(expected.size() + 1);
+                text.add(index, "p" + i);
+                expected.add(index, "p" + i);
+            } else if (operation < 8) {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.remove(index), text.remove(index));
+            } else {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.set(index, "s" + i), text.set(index, "s" + i));
+            }
+        }
+        assertEquals(expected, text);
+        assertEquals(String.join("", expected).length(), text.getCharacterCount());
+        assertEquals(text.getCharacterCount(), new ParagraphList(expected).getCharacterCount());
+        text.clear();
+        assertEquals(0, text.getCharacterCount());
+    }
+
+    @Test
+    void testRemovingMergesChunks() {
+        List<String> paragraphs = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            paragraphs.add("p" + i);
+        }
+        ParagraphList text = new ParagraphList(paragraphs);
+        int chunkCount = text.getChunkCount();
+        while (text.size() > 10) {
+            text.remove(text.size() / 2);
+        }
+        assertTrue(text.getChunkCount() < chunkCount);
+        while (!text.isEmpty()) {
+            text.remove(0);
+        }
+        assertEquals(0, text.getChunkCount());
+        text.add("again");
+        assertEquals(Arrays.asList("again"), text);
+    }
+
+    @Test
+    void testIterator() {
+        ParagraphList text = new ParagraphList(Arrays.asList("a", "b", "c"));
+        Iterator<String> iterator = text.iterator();
+        assertEquals("a", iterator.next());
+        text.remove(2);
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+    }
+
+    @Test
+    void testInvalidIndex() {
+        ParagraphList text = new ParagraphList(Arrays.asList("a"));
+        assertThrows(IndexOutOfBoundsException.class, () -> text.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> text.remove(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> text.add(2, "b"));
+        assertThrows(IndexOutOfBoundsException.class, () -> new ParagraphList().get(0));
+    }
+
+    @Test
+    void testSnapshotDoesNotChange() {
+        List<String> paragraphs = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            paragraphs.add("p" + i);
+        }
+        ParagraphList text = new ParagraphList(paragraphs);
+        ParagraphList.Snapshot snapshot = text.snapshot();
+        assertSame(snapshot, text.snapshot());
+        text.add(0, "first");
+        text.set(1000, "changed");
+        text.remove(1999);
+        for (int i = 0; i < 600; i++) {
+            text.add(700, "inserted" + i);
+        }
+        assertEquals(paragraphs, snapshot);
+        assertEquals(paragraphs.get(1000), snapshot.get(1000));
+        ParagraphList.Snapshot newSnapshot = text.snapshot();
+        assertNotSame(snapshot, newSnapshot);
+        assertTrue(newSnapshot.getVersion() > snapshot.getVersion());
+        assertEquals(text, newSnapshot);
+    }
+
+    @Test
+    void testSnapshotsOfEveryVersion() {
+        Random random = new Random(3);
+        ParagraphList text = new ParagraphList();
+        List<List<String>> versions = new ArrayList<>();
+        List<ParagraphList.Snapshot> snapshots = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            if (text.isEmpty() || random.nextInt(3) > 0) {
+                text.add(random.nextInt(text.size() + 1), "p" + i);
+            } else if (random.nextBoolean()) {
+                text.remove(random.nextInt(text.size()));
+            } else {
+                text.set(random.nextInt(text.size()), "s" + i);
+            }
+            if (i % 100 == 0) {
+                versions.add(new ArrayList<>(text));
+                snapshots.add(text.snapshot());
+            }
+        }
+        for (int i = 0; i < versions.size(); i++) {
+            assertEquals(versions.get(i), snapshots.get(i));
+        }
+    }
+
+    @Test
+    void testSnapshotIsReadWhileTextIsEdited() throws Exception {
+        List<String> paragraphs = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            paragraphs.add("p" + i);
+        }
+        ParagraphList text = new ParagraphList(paragraphs);
+        ParagraphList.Snapshot snapshot = text.snapshot();
+        List<String> read = new ArrayList<>();
+        Thread reader = new Thread(() -> {
+            for (int i = 0; i < 20; i++) {
+                read.clear();
+                read.addAll(snapshot);
+            }
+        });
+        reader.start();
+        for (int i = 0; i < 5000; i++) {
+            text.add(i % 3000, "new" + i);
+            text.remove((i * 7) % text.size());
+        }
+        reader.join();
+        assertEquals(paragraphs, read);
+    }
+}
@@ -0,0 +1,97 @@
+package com.NotFalse.app;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PieceTableTest {
+
+    @Test
+    void testReplaceInsertAndDelete() {
+        PieceTable paragraph = new PieceTable("Hello brave new world");
+        paragraph.replace(6, 11, "bold");
+        assertEquals("Hello bold new world", paragraph.toString());
+        paragraph.replace(0, 0, ">> ");
+        paragraph.replace(paragraph.length(), paragraph.length(), "!");
+        paragraph.replace(8, 13, "");
+        assertEquals(">> Hello new world!", paragraph.toString());
+        assertEquals(19, paragraph.length());
+    }
+
+    @Test
+    void testEditsDoNotMaterialize() {
+        PieceTable paragraph = new PieceTable("one two three");
+        assertTrue(paragraph.isMaterialized());
+        paragraph.replace(4, 7, "2");
+        assertFalse(paragraph.isMaterialized());
+        assertEquals(3, paragraph.getPieceCount());
+        assertEquals('2', paragraph.charAt(4));
+        assertEquals("2 three", paragraph.subSequence(4, 11));
+        assertFalse(paragraph.isMaterialized());
+        assertEquals("one 2 three", paragraph.toString());
+        assertTrue(paragraph.isMaterialized());
+    }
+
+    @Test
+    void testAppendedTextExtendsPiece() {
+        PieceTable paragraph = new PieceTable("abc");
+        paragraph.replace(3, 3, "d");
+        paragraph.replace(4, 4, "e");
+        assertEquals(2, paragraph.getPieceCount());
+        assertEquals("abcde", paragraph.toString());
+    }
+
+    @Test
+    void testCopyIsIndependent() {
+        PieceTable paragraph = new PieceTable("red green blue");
+        PieceTable copy = paragraph.copy();
+        paragraph.replace(4, 9, "yellow");
+        copy.replace(0, 3, "black");
+        assertEquals("red yellow blue", paragraph.toString());
+        assertEquals("black green blue", copy.toString());
+    }
+
+    @Test
+    void testCopiesSharingTheBufferKeepTheirText() {
+        PieceTable paragraph = new PieceTable("base");
+        PieceTable first = paragraph.copy();
+        first.replace(4, 4, " first");
+        PieceTable second = paragraph.copy();
+        // the buffer grows while both copies append to it
+        second.replace(4, 4, " second".repeat(20));
+        first.replace(first.length(), first.length(), "!");
+        assertEquals("base first!", first.toString());
+        assertEquals("base" + " second".repeat(20), second.toString());
+        assertEquals("base", paragraph.toString());
+    }
+
+    @Test
+    void testRandomEditsMatchStringBuilder() {
+        Random random = new Random(7);
+        PieceTable paragraph = new PieceTable("The quick brown fox jumps over the lazy dog");
+        StringBuilder expected = new StringBuilder(paragraph);
+        for (int i = 0; i < 500; i++) {
+            int start = random.nextInt(expected.length() + 1);
+            int end = start + random.nextInt(Math.min(5, expected.length() - start) + 1);
+            String replacement = "x".repeat(random.nextInt(4));
+            paragraph.replace(start, end, replacement);
+            expected.replace(start, end, replacement);
+            int index = random.nextInt(Math.max(1, expected.length()));
+            if (expected.length() > 0) {
+                assertEquals(expected.charAt(index), paragraph.charAt(index));
+            }
+        }
+        assertEquals(expected.toString(), paragraph.toString());
+    }
+
+    @Test
+    void testInvalidRange() {
+        PieceTable paragraph = new PieceTable("abc");
+        assertThrows(IndexOutOfBoundsException.class, () -> paragraph.replace(2, 4, "x"));
+        assertThrows(IndexOutOfBoundsException.class, () -> paragraph.replace(2, 1, "x"));
+        paragraph.replace(0, 1, "");
+        assertThrows(IndexOutOfBoundsException.class, () -> paragraph.charAt(2));
+    }
+}
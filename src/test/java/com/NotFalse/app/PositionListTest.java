@@ -0,0 +1,50 @@
+package com.NotFalse.app;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PositionListTest {
+
+    private static String toString(PositionList list) {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < list.size(); i++) {
+            result.append(list.getParagraphNumber(i)).append(':').append(list.getPosition(i)).append(' ');
+        }
+        return result.toString().trim();
+    }
+
+    @Test
+    void testAddKeepsOrder() {
+        PositionList list = new PositionList();
+        list.add(0, 1);
+        list.add(2, 0);
+        list.add(2, 5);
+        list.add(1, 3);
+        list.add(0, 0);
+        assertEquals("0:0 0:1 1:3 2:0 2:5", toString(list));
+    }
+
+    @Test
+    void testRemoveParagraph() {
+        PositionList list = new PositionList();
+        list.add(0, 0);
+        list.add(1, 0);
+        list.add(1, 4);
+        list.add(2, 2);
+        list.removeParagraph(1);
+        assertEquals("0:0 2:2", toString(list));
+        list.removeParagraph(5);
+        assertEquals(2, list.size());
+    }
+
+    @Test
+    void testInvalidIndex() {
+        PositionList list = new PositionList();
+        list.add(0, 0);
+        list.add(3, 1);
+        list.add(4, 2);
+        assertThrows(IndexOutOfBoundsException.class, () -> list.getPosition(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.getParagraphNumber(3));
+    }
+}
@@ -0,0 +1,40 @@
+package com.NotFalse.app;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PostingListTest {
+
+    private PostingList createList(int... paragraphNumbers) {
+        PostingList postingList = new PostingList();
+        for (int paragraphNumber : paragraphNumbers) {
+            postingList.add(paragraphNumber);
+        }
+        return postingList;
+    }
+
+    @Test
+    void testAddKeepsNumbersSortedAndUnique() {
+        PostingList postingList = createList(5, 1, 9, 5, 3, 1, 12);
+        assertEquals(Arrays.asList(1, 3, 5, 9, 12), postingList.asList());
+        assertFalse(postingList.add(9));
+    }
+
+    @Test
+    void testRemove() {
+        PostingList postingList = createList(1, 2, 3);
+        assertTrue(postingList.remove(2));
+        assertFalse(postingList.remove(7));
+        assertEquals(Arrays.asList(1, 3), postingList.asList());
+    }
+
+    @Test
+    void testContains() {
+        PostingList postingList = createList(2, 8);
+        assertTrue(postingList.contains(8));
+        assertFalse(postingList.contains(3));
+    }
+}
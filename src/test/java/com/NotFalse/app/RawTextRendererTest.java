@@ -0,0 +1,112 @@
+package com.NotFalse.app;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RawTextRendererTest {
+
+    private RawTextRenderer renderer;
+    private List<String> text;
+
+    @BeforeEach
+    void setUp() {
+        renderer = new RawTextRenderer();
+        text = new ArrayList<>(Arrays.asList("first", "second", "third"));
+        renderer.reset(text.size());
+    }
+
+    @Test
+    void testRender() {
+        assertEquals("<1>: first\n<2>: second\n<3>: third\n", renderer.render(text));
+    }
+
+    @Test
+    void testRenderReusesUnchangedText() {
+        String rendered = renderer.render(text);
+        assertSame(rendered, renderer.render(text));
+    }
+
+    @Test
+    void testParagraphInsertedRenumbersTail() {
+        renderer.render(text);
+        text.add(1, "new");
+        renderer.paragraphInserted(1);
+        assertEquals("<1>: first\n<2>: new\n<3>: second\n<4>: third\n", renderer.render(text));
+    }
+
+    @Test
+    void testParagraphRemovedRenumbersTail() {
+        renderer.render(text);
+        text.remove(0);
+        renderer.paragraphRemoved(0);
+        assertEquals("<1>: second\n<2>: third\n", renderer.render(text));
+    }
+
+    @Test
+    void testParagraphChanged() {
+        renderer.render(text);
+        text.set(2, "changed");
+        renderer.paragraphChanged(2);
+        assertEquals("<1>: first\n<2>: second\n<3>: changed\n", renderer.render(text));
+    }
+
+    @Test
+    void testRenderToAppendable() throws IOException {
+        StringWriter writer = new StringWriter();
+        renderer.render(text, writer);
+        assertEquals(renderer.render(text), writer.toString());
+    }
+
+    @Test
+    void testRenderRange() throws IOException {
+        renderer.render(text);
+        text.add(0, "new");
+        renderer.paragraphInserted(0);
+        StringWriter output = new StringWriter();
+        renderer.render(text, 1, 2, output);
+        assertEquals("<2>: first\n<3>: second\n", output.toString());
+    }
+
+    @Test
+    void testRenderRangeOfOffHeapTextIsNotCached() throws IOException {
+        OffHeapTextStore store = new OffHeapTextStore();
+        ParagraphList paragraphs = new ParagraphList();
+        for (String paragraph : text) {
+            paragraphs.addSource(paragraphs.size(), store.store(paragraph));
+        }
+        renderer.reset(paragraphs.size());
+        StringWriter output = new StringWriter();
+        renderer.render(paragraphs.snapshot(), 0, paragraphs.size() - 1, output);
+        assertEquals("<1>: first\n<2>: second\n<3>: third\n", output.toString());
+        assertEquals(0, renderer.getCachedParagraphCount());
+    }
+
+    @Test
+    void testInsertsAtFrontKeepCachedParagraphsInOrder() throws IOException {
+        ParagraphList paragraphs = new ParagraphList();
+        RawTextRenderer attached = new RawTextRenderer();
+        int count = 1_000;
+        for (int i = 0; i < count; i++) {
+            paragraphs.add(0, "p" + i);
+            attached.paragraphInserted(0);
+            if (i % 100 == 0) {
+                // the cache is filled in between, so the inserts have to keep it in order
+                attached.render(paragraphs);
+            }
+        }
+        StringWriter output = new StringWriter();
+        attached.render(paragraphs.snapshot(), count - 2, count - 1, output);
+        assertEquals("<999>: p1\n<1000>: p0\n", output.toString());
+        String rendered = attached.render(paragraphs);
+        assertTrue(rendered.startsWith("<1>: p999\n<2>: p998\n"));
+        assertTrue(rendered.endsWith("<1000>: p0\n"));
+    }
+}
@@ -0,0 +1,97 @@
+package com.NotFalse.app;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchIndexTest {
+
+    private final List<String> text = new ArrayList<>(Arrays.asList(
+            "The quick brown fox jumps over the lazy dog.",
+            "A quick brown dog, and a Brown fox.",
+            "Foxes are quick; dogs are lazy.",
+            "The lazy dog sleeps."));
+
+    @Test
+    void testSearchWord() {
+        SearchIndex index = SearchIndex.build(text);
+        assertEquals(List.of(1, 2), index.search("fox"));
+        assertEquals(List.of(1, 2, 3), index.search("QUICK"));
+        assertEquals(List.of(), index.search("cat"));
+    }
+
+    @Test
+    void testSearchPhrase() {
+        SearchIndex index = SearchIndex.build(text);
+        assertEquals(List.of(1, 4), index.search("\"lazy dog\""));
+        assertEquals(List.of(1, 2), index.search("\"quick brown\""));
+        assertEquals(List.of(1), index.search("\"brown fox\" \"lazy dog\""));
+        // the words have to follow each other in this order
+        assertEquals(List.of(), index.search("\"dog lazy\""));
+    }
+
+    @Test
+    void testSearchAnd() {
+        SearchIndex index = SearchIndex.build(text);
+        assertEquals(List.of(1, 4), index.search("lazy dog"));
+        assertEquals(List.of(1, 4), index.search("lazy AND dog"));
+        assertEquals(List.of(), index.search("fox AND sleeps"));
+        assertEquals(List.of(), index.search("AND"));
+    }
+
+    @Test
+    void testParseQuery() {
+        assertEquals(List.of("a", "b c", "d"), SearchIndex.parseQuery(" a \"b c\" AND d"));
+        assertEquals(List.of("open quote"), SearchIndex.parseQuery("\"open quote"));
+    }
+
+    @Test
+    void testUpdatesMatchRebuiltIndex() {
+        SearchIndex index = SearchIndex.build(text);
+        text.add(1, "A lazy fox is not a quick fox.");
+        index.insertParagraph(1, text.get(1));
+        String removed = text.remove(3);
+        index.removeParagraph(3, removed);
+        String replaced = text.set(0, "The lazy dog is brown.");
+        index.replaceParagraph(0, replaced, text.get(0));
+
+        SearchIndex rebuilt = SearchIndex.build(text);
+        for (String query : new String[]{"fox", "lazy", "\"lazy dog\"", "quick fox", "brown", "sleeps", "\"quick fox\""}) {
+            assertEquals(rebuilt.search(query), index.search(query), query);
+        }
+        assertEquals(List.of(1, 4), index.search("\"lazy dog\""));
+    }
+
+    @Test
+    void testRandomEditsMatchRebuild() {
+        Random random = new Random(29);
+        String[] paragraphs = {"quick fox", "lazy dog", "the quick brown fox", "fox", "a lazy quick dog"};
+        List<String> edited = new ArrayList<>();
+        SearchIndex index = SearchIndex.build(edited);
+        for (int i = 0; i < 500; i++) {
+            int operation = random.nextInt(3);
+            if (edited.isEmpty() || operation == 0) {
+                int position = random.nextInt(edited.size() + 1);
+                String paragraph = paragraphs[random.nextInt(paragraphs.length)];
+                edited.add(position, paragraph);
+                index.insertParagraph(position, paragraph);
+            } else if (operation == 1) {
+                int position = random.nextInt(edited.size());
+                index.removeParagraph(position, edited.remove(position));
+            } else {
+                int position = random.nextInt(edited.size());
+                String paragraph = paragraphs[random.nextInt(paragraphs.length)];
+                index.replaceParagraph(position, edited.set(position, paragraph), paragraph);
+            }
+        }
+        SearchIndex rebuilt = SearchIndex.build(edited);
+        for (String query : new String[]{"fox", "quick", "\"quick fox\"", "lazy dog", "\"lazy quick\"", "brown"}) {
+            assertEquals(rebuilt.search(query), index.search(query), query);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.NotFalse.app;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TextEditorTest {
+
+    private final ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+
+    private int runScript(String script) {
+        return TextEditor.runBatch(new ByteArrayInputStream(script.getBytes()), new PrintStream(outContent));
+    }
+
+    @Test
+    void testBatchRunsCommandsWithoutPrompts() {
+        int exitCode = runScript("add 1\nHello batch\nprint\nexit\n");
+
+        String output = outContent.toString();
+        assertEquals(0, exitCode);
+        assertTrue(output.contains("Text has been added"));
+        assertTrue(output.contains("<1>: Hello batch"));
+        assertFalse(output.contains("Text: "));
+        assertFalse(output.contains("Welcome"));
+    }
+
+    @Test
+    void testBatchEndsAtEndOfScript() {
+        assertEquals(0, runScript("dummy\n"));
+        assertTrue(outContent.toString().contains("Text has been added"));
+    }
+
+    @Test
+    void testBatchReturnsErrorCode() {
+        assertEquals(1, runScript("del 99\nexit\n"));
+        assertTrue(outContent.toString().contains("Text has not been deleted"));
+    }
+
+    @Test
+    void testBatchReturnsErrorCodeForIncompleteCommand() {
+        assertEquals(1, runScript("add\n"));
+    }
+
+    @Test
+    void testBatchFormatFixWithWidth() {
+        assertEquals(0, runScript("format fix 10\nprint\nexit\n"));
+        String output = outContent.toString();
+        assertTrue(output.contains("Format changed successfully!"));
+        assertTrue(output.contains("This three\nthrEE\n"));
+    }
+
+    @Test
+    void testBatchFormatFixWithInvalidWidth() {
+        assertEquals(1, runScript("format fix 0\nexit\n"));
+        assertTrue(outContent.toString().contains("Format has not been changed"));
+    }
+
+    @Test
+    void testBatchReplaceKeepsCase() {
+        assertEquals(0, runScript("add\nHello World, hello worlds\nreplace 4\nhello\nGoodbye\nprint\nexit\n"));
+        assertTrue(outContent.toString().contains("<4>: Goodbye World, Goodbye worlds"));
+    }
+
+    @Test
+    void testBatchReplaceAll() {
+        String script = "add\nthe cat and the dog\nadd\nno animals here\nadd\nA Dog\n"
+                + "replace_all\ncat\nmouse\ndog\nwolf\n\nprint\nexit\n";
+        assertEquals(0, runScript(script));
+        String output = outContent.toString();
+        assertTrue(output.contains("Text replaced successfully in 2 paragraph(s)!"));
+        assertTrue(output.contains("<4>: the mouse and the wolf"));
+        assertTrue(output.contains("<5>: no animals here"));
+        assertTrue(output.contains("<6>: A wolf"));
+    }
+
+    @Test
+    void testBatchReplaceInLongLoadedParagraph(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("long.txt");
+        String paragraph = "alpha beta ".repeat(TextManager.PIECE_TABLE_MIN_LENGTH / 10);
+        Files.writeString(file, paragraph + "\nshort beta\n");
+        String script = "load\n" + file + "\nindex\nreplace 1\nalpha\ngamma\n"
+                + "replace_all\nbeta\ndelta\n\nindex\nprint 1\nexit\n";
+        assertEquals(0, runScript(script));
+        String output = outContent.toString();
+        String glossary = output.substring(output.lastIndexOf("Text replaced successfully"));
+        assertTrue(output.contains("<1>: " + "gamma delta ".repeat(TextManager.PIECE_TABLE_MIN_LENGTH / 10)));
+        assertTrue(glossary.contains("Delta      1, 2"));
+        assertFalse(glossary.contains("Alpha"));
+    }
+
+    @Test
+    void testBatchSearch() {
+        String script = "search \"useless new\"\nadd 1\nA new test is not a test paragraph\n"
+                + "search \"useless new\"\nsearch \"new test\" AND not\nsearch unicorn\nexit\n";
+        assertEquals(0, runScript(script));
+        String output = outContent.toString();
+        assertTrue(output.contains("Found in paragraph(s): 3\n"));
+        assertTrue(output.contains("Found in paragraph(s): 4\n"));
+        assertTrue(output.contains("Found in paragraph(s): 1\n"));
+        assertTrue(output.contains("No paragraph has been found"));
+    }
+
+    @Test
+    void testBatchSucceedsWhenNothingMatches() {
+        String script = "search unicorn\nreplace 1\nunicorn\nhorse\nreplace_all\nunicorn\nhorse\n\nstats\nexit\n";
+        assertEquals(0, runScript(script));
+        String output = outContent.toString();
+        assertTrue(output.contains("No paragraph has been found"));
+        assertEquals(2, output.split("Text has not been replaced", -1).length - 1);
+    }
+
+    @Test
+    void testBatchPrintRange() {
+        assertEquals(0, runScript("print 2-3\nprint 1\nexit\n"));
+        String output = outContent.toString();
+        assertTrue(output.contains("<2>: Another New test paragraph.\n\n<3>: Another weird useless nEw test paragraph\n"));
+        assertTrue(output.contains("<1>: This three"));
+        assertEquals(2, output.split("<2>:", -1).length);
+    }
+
+    @Test
+    void testBatchPrintFixedLinesAndPages() {
+        assertEquals(0, runScript("format fix 10\nprint 2-3\nprint page 1\nexit\n"));
+        String output = outContent.toString();
+        assertTrue(output.contains("thrEE\nThreeis a\n"));
+        assertTrue(output.contains("Page 1 of 1"));
+    }
+
+    @Test
+    void testBatchPrintInvalidRange() {
+        assertEquals(1, runScript("print 4\nprint 3-1\nprint page 2\nprint x\nexit\n"));
+        assertEquals(4, outContent.toString().split("Text has not been printed", -1).length - 1);
+    }
+}
@@ -1,7 +1,12 @@
 package com.NotFalse.app;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 
@@ -129,5 +134,74 @@ public class TextManagerTest {
         assertEquals(expected, textManager.formatTextRaw());
     }
 
+    // Test for Method formatTextFix
+    @Test
+    void testTextLargerThanLayoutCacheIsFormattedWithoutIt() {
+        ArrayList<String> paragraphs = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            paragraphs.add("word " + i + " is formatted with a fixed width");
+        }
+        textManager.setText(paragraphs);
+        String expected = textManager.formatTextFix(12);
+        textManager.setLayoutCacheCapacity(1000);
+        assertEquals(expected, textManager.formatTextFix(12));
+        assertEquals(expected, textManager.formatTextFix(12));
+    }
+
+    // Test for Method replaceWord
+    @Test
+    void testReplaceWordInLongParagraph() {
+        String paragraph = "alpha beta ".repeat(TextManager.PIECE_TABLE_MIN_LENGTH / 10);
+        textManager.setText(Arrays.asList("short alpha", paragraph));
+        textManager.replaceWord(1, "beta", "gamma");
+        textManager.replaceWord(1, "alpha", "delta");
+        String expected = "<1>: short alpha\n<2>: " + "delta gamma ".repeat(TextManager.PIECE_TABLE_MIN_LENGTH / 10) + "\n";
+        assertEquals(expected, textManager.formatTextRaw());
+    }
 
-}
\ No newline at end of file
+    // Test for Method showGlossary
+    @Test
+    void testBackgroundGlossaryFollowsChanges() {
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(outContent);
+        TextManager manager = new TextManager(new InputReceiver(new ByteArrayInputStream(new byte[0])),
+                new OutputManager(out, out, false));
+        manager.setBackgroundGlossaryEnabled(true);
+        manager.setText(Arrays.asList("alpha alpha alpha beta", "beta beta"));
+        manager.replaceWord(0, "alpha", "gamma");
+        manager.showGlossary();
+        assertTrue(outContent.toString().contains("Beta       1, 2"));
+        assertTrue(outContent.toString().contains("Gamma      1"));
+        assertFalse(outContent.toString().contains("Alpha"));
+
+        outContent.reset();
+        manager.setBackgroundGlossaryEnabled(false);
+        manager.replaceWord(1, "beta", "gamma");
+        manager.showGlossary();
+        assertTrue(outContent.toString().contains("Gamma      1, 2"));
+        assertFalse(outContent.toString().contains("Beta"));
+    }
+
+    // Test for Method setOffHeapEnabled
+    @Test
+    void testOffHeapParagraphsCanBeEdited() {
+        textManager.setText(Arrays.asList("Grüße alpha", "beta"));
+        textManager.setOffHeapEnabled(true);
+        textManager.replaceWord(0, "alpha", "gamma");
+        assertEquals("<1>: Grüße gamma\n<2>: beta\n", textManager.formatTextRaw());
+        textManager.setOffHeapEnabled(false);
+        assertEquals("<1>: Grüße gamma\n<2>: beta\n", textManager.formatTextRaw());
+    }
+
+    // Test for Method setTokenStorageEnabled
+    @Test
+    void testTokenParagraphsCanBeEditedAndFormatted() {
+        textManager.setText(Arrays.asList("alpha beta, alpha", "beta alpha"));
+        textManager.setTokenStorageEnabled(true);
+        textManager.replaceWord(0, "beta", "gamma");
+        assertEquals("<1>: alpha gamma, alpha\n<2>: beta alpha\n", textManager.formatTextRaw());
+        assertEquals("alpha gamma,\nalpha beta\nalpha", textManager.formatTextFix(12));
+        textManager.setTokenStorageEnabled(false);
+        assertEquals("<1>: alpha gamma, alpha\n<2>: beta alpha\n", textManager.formatTextRaw());
+    }
+}
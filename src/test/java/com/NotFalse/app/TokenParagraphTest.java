@@ -0,0 +1,79 @@
+package com.NotFalse.app;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenParagraphTest {
+
+    @Test
+    void testEncodeAndDecode() {
+        Vocabulary vocabulary = new Vocabulary();
+        TokenParagraph paragraph = TokenParagraph.encode("Hello, hello  world!\n", vocabulary);
+        assertEquals("Hello, hello  world!\n", paragraph.toString());
+        assertEquals(21, paragraph.length());
+        assertEquals('w', paragraph.charAt(14));
+        // Hello , hello "  " world !\n, the space after the comma is only marked
+        assertEquals(7, paragraph.getTokenCount());
+        assertEquals(Vocabulary.WORD, vocabulary.getKind(paragraph.getTokenId(0)));
+        assertEquals(Vocabulary.OTHER, vocabulary.getKind(paragraph.getTokenId(1)));
+    }
+
+    @Test
+    void testVocabularyIsShared() {
+        Vocabulary vocabulary = new Vocabulary();
+        TokenParagraph first = TokenParagraph.encode("the same words", vocabulary);
+        TokenParagraph second = TokenParagraph.encode("words the same", vocabulary);
+        assertEquals(3, vocabulary.size());
+        assertEquals(first.getTokenId(0), second.getTokenId(1));
+        assertEquals("words the same", second.toString());
+    }
+
+    @Test
+    void testEmptyParagraph() {
+        TokenParagraph paragraph = TokenParagraph.encode("", new Vocabulary());
+        assertEquals("", paragraph.toString());
+        assertEquals(0, paragraph.getTokenCount());
+        assertArrayEquals(FixedWidthFormatter.computeWordBreaks(""), paragraph.computeWordBreaks());
+    }
+
+    @Test
+    void testWordBreaksMatchFormatter() {
+        Random random = new Random(7);
+        String characters = "ab Z.,\n\t  -ä";
+        Vocabulary vocabulary = new Vocabulary();
+        for (int i = 0; i < 1000; i++) {
+            StringBuilder paragraph = new StringBuilder();
+            for (int j = random.nextInt(20); j > 0; j--) {
+                paragraph.append(characters.charAt(random.nextInt(characters.length())));
+            }
+            String text = paragraph.toString();
+            TokenParagraph tokens = TokenParagraph.encode(text, vocabulary);
+            assertEquals(text, tokens.toString());
+            assertArrayEquals(FixedWidthFormatter.computeWordBreaks(text), tokens.computeWordBreaks(), text);
+        }
+    }
+
+    @Test
+    void testCharactersMatchDecodedText() {
+        Random random = new Random(11);
+        String[] parts = {"word", " ", "  ", ",", "\n", "Text", "ä"};
+        Vocabulary vocabulary = new Vocabulary();
+        for (int i = 0; i < 100; i++) {
+            StringBuilder builder = new StringBuilder();
+            for (int j = random.nextInt(5 * TokenParagraph.CHECKPOINT_INTERVAL); j > 0; j--) {
+                builder.append(parts[random.nextInt(parts.length)]);
+            }
+            String text = builder.toString();
+            TokenParagraph paragraph = TokenParagraph.encode(text, vocabulary);
+            for (int j = 0; j < text.length(); j++) {
+                assertEquals(text.charAt(j), paragraph.charAt(j));
+            }
+            int from = random.nextInt(text.length() + 1);
+            int to = from + random.nextInt(text.length() - from + 1);
+            assertEquals(text.substring(from, to), paragraph.subSequence(from, to).toString());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.NotFalse.app;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class Utf8ParagraphTest {
+
+    private static Utf8Paragraph paragraphOf(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length + 4);
+        buffer.put(2, bytes);
+        return new Utf8Paragraph(buffer, 2, 2 + bytes.length);
+    }
+
+    @Test
+    void testAsciiParagraph() {
+        Utf8Paragraph paragraph = paragraphOf("Hello world".getBytes(StandardCharsets.UTF_8));
+        assertEquals(11, paragraph.length());
+        assertEquals('w', paragraph.charAt(6));
+        assertEquals("world", paragraph.subSequence(6, 11).toString());
+        assertThrows(IndexOutOfBoundsException.class, () -> paragraph.charAt(11));
+    }
+
+    @Test
+    void testCharactersMatchDecodedText() {
+        Random random = new Random(3);
+        String characters = "aZ äöü€😀.";
+        for (int i = 0; i < 50; i++) {
+            StringBuilder builder = new StringBuilder();
+            for (int j = random.nextInt(3 * Utf8Paragraph.WINDOW_SIZE); j > 0; j--) {
+                char character = characters.charAt(random.nextInt(characters.length()));
+                if (Character.isSurrogate(character)) {
+                    builder.append("😀");
+                } else {
+                    builder.append(character);
+                }
+            }
+            String text = builder.toString();
+            Utf8Paragraph paragraph = paragraphOf(text.getBytes(StandardCharsets.UTF_8));
+            assertEquals(text, paragraph.toString());
+            assertEquals(text.length(), paragraph.length());
+            // backwards, so every window is decoded again
+            for (int j = text.length() - 1; j >= 0; j--) {
+                assertEquals(text.charAt(j), paragraph.charAt(j));
+            }
+            int from = random.nextInt(text.length() + 1);
+            assertEquals(text.substring(from), paragraph.subSequence(from, text.length()).toString());
+        }
+    }
+
+    @Test
+    void testMalformedBytesAreReplaced() {
+        byte[] bytes = new byte[Utf8Paragraph.WINDOW_SIZE * 2];
+        Random random = new Random(5);
+        random.nextBytes(bytes);
+        String text = new String(bytes, StandardCharsets.UTF_8);
+        Utf8Paragraph paragraph = paragraphOf(bytes);
+        assertEquals(text.length(), paragraph.length());
+        for (int i = 0; i < text.length(); i++) {
+            assertEquals(text.charAt(i), paragraph.charAt(i), "Index " + i);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.NotFalse.app;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WordFrequencyTableTest {
+
+    @Test
+    void testAddCountsCaseInsensitive() {
+        WordFrequencyTable table = new WordFrequencyTable();
+        int id = table.add("Test", 0, 4, 1);
+        assertEquals(id, table.add("a TEST b", 2, 6, 1));
+        assertEquals(2, table.getFrequency(id));
+        assertEquals("test", table.getWord(id));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    void testAddNegativeDelta() {
+        WordFrequencyTable table = new WordFrequencyTable();
+        int id = table.add("word", 0, 4, 3);
+        table.add("word", 0, 4, -2);
+        assertEquals(1, table.getFrequency(id));
+    }
+
+    @Test
+    void testFindUnknownWord() {
+        WordFrequencyTable table = new WordFrequencyTable();
+        table.add("known", 0, 5, 1);
+        assertEquals(-1, table.find("unknown"));
+        assertEquals(0, table.find("Known"));
+    }
+
+    @Test
+    void testManyWordsKeepTheirIds() {
+        WordFrequencyTable table = new WordFrequencyTable();
+        for (int i = 0; i < 1000; i++) {
+            String word = "" + (char) ('a' + i % 26) + (char) ('a' + i / 26 % 26) + (char) ('a' + i / 676);
+            table.add(word, 0, word.length(), 1);
+        }
+        assertEquals(1000, table.size());
+        for (int id = 0; id < table.size(); id++) {
+            assertEquals(id, table.find(table.getWord(id)));
+        }
+    }
+}
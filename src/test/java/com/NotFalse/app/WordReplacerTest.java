@@ -0,0 +1,81 @@
+package com.NotFalse.app;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WordReplacerTest {
+
+    @Test
+    void testReplaceWholeWordsOnly() {
+        WordReplacer replacer = new WordReplacer(Map.of("new", "old"));
+        assertEquals("old renewal is newer than old", replacer.replace("new renewal is newer than new"));
+    }
+
+    @Test
+    void testReplaceIgnoresCaseAndKeepsOtherText() {
+        WordReplacer replacer = new WordReplacer(Map.of("HELLO", "Goodbye"));
+        assertEquals("Goodbye, World! Goodbye.", replacer.replace("Hello, World! hello."));
+    }
+
+    @Test
+    void testReplaceManyWordsInOnePass() {
+        Map<String, String> replacements = new LinkedHashMap<>();
+        replacements.put("cat", "dog");
+        replacements.put("dog", "cat");
+        replacements.put("mouse", "elephant");
+        WordReplacer replacer = new WordReplacer(replacements);
+        // replaced words are not replaced again
+        assertEquals("dog cat elephant", replacer.replace("cat dog mouse"));
+    }
+
+    @Test
+    void testReplaceLongestMatch() {
+        Map<String, String> replacements = new HashMap<>();
+        replacements.put("new", "old");
+        replacements.put("new york", "NYC");
+        replacements.put("york", "Jork");
+        WordReplacer replacer = new WordReplacer(replacements);
+        assertEquals("NYC is old yorker than NYC, Jork", replacer.replace("new york is new yorker than new york, york"));
+    }
+
+    @Test
+    void testReplaceReturnsSameStringIfNothingFound() {
+        WordReplacer replacer = new WordReplacer(Map.of("absent", "present"));
+        String paragraph = "Nothing to replace here, absently.";
+        assertSame(paragraph, replacer.replace(paragraph));
+    }
+
+    @Test
+    void testReplaceWithUmlautsAndBoundaries() {
+        WordReplacer replacer = new WordReplacer(Map.of("rich", "poor", "über", "over"));
+        assertEquals("Zürich is poor, over-over", replacer.replace("Zürich is rich, Über-über"));
+    }
+
+    @Test
+    void testDigitsAndUmlautsAreNotBoundaries() {
+        WordReplacer replacer = new WordReplacer(Map.of("abc", "xyz", "rich", "poor"));
+        // umlauts and digits are part of the words, so only the standalone words are replaced
+        assertEquals("abc1 2abc abcd äabc Zürich xyz, poor",
+                replacer.replace("abc1 2abc abcd äabc Zürich abc, rich"));
+    }
+
+    @Test
+    void testEmptyWordIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new WordReplacer(Map.of("", "x")));
+    }
+
+    @Test
+    void testReplaceInPieceTable() {
+        WordReplacer replacer = new WordReplacer(Map.of("new", "old", "york", "York"));
+        PieceTable paragraph = new PieceTable("new renewal in New York and york");
+        assertTrue(replacer.replace(paragraph));
+        assertEquals("old renewal in old York and York", paragraph.toString());
+        // replacing a word with itself does not change the paragraph
+        assertFalse(replacer.replace(new PieceTable("only York")));
+    }
+}
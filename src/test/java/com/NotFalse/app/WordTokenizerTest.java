@@ -0,0 +1,42 @@
+package com.NotFalse.app;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WordTokenizerTest {
+
+    private List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        WordTokenizer.tokenize(text, (source, start, end) -> words.add(source.subSequence(start, end).toString()));
+        return words;
+    }
+
+    @Test
+    void testTokenizeSeparatesOnNonLetters() {
+        assertEquals(Arrays.asList("This", "is", "a", "ParaGrAPh", "para", "graph"),
+                tokenize("This is a ParaGrAPh:, para.graph"));
+    }
+
+    @Test
+    void testTokenizeIgnoresDigitsAndUmlauts() {
+        assertEquals(Arrays.asList("abc", "def", "gr", "n"), tokenize("  abc123def grün\n"));
+    }
+
+    @Test
+    void testTokenizeEmptyText() {
+        assertTrue(tokenize("").isEmpty());
+        assertTrue(tokenize(" .,; ").isEmpty());
+    }
+
+    @Test
+    void testToLowerCase() {
+        assertEquals('a', WordTokenizer.toLowerCase('A'));
+        assertEquals('z', WordTokenizer.toLowerCase('z'));
+        assertEquals('[', WordTokenizer.toLowerCase('['));
+    }
+}